@@ -0,0 +1,26 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.constants.BookingState;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор параметра state в gateway перебором значений без учета регистра
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingStateBenchmark {
+    @Param({"ALL", "rejected", "UNSUPPORTED"})
+    private String state;
+
+    @Benchmark
+    public Optional<BookingState> from() {
+        return BookingState.from(state);
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.client.BookingClient;
+import ru.practicum.shareit.booking.constants.BookingState;
+import ru.practicum.shareit.client.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Путь GET /bookings через gateway: BookingClient, BaseClient, клиент выбранного режима и пул
+ * соединений до сервера-заглушки в том же процессе. Кэш ответов выключен, чтобы каждый вызов
+ * доходил до сервера. Без pass-through тело разбирается в объект и сериализуется заново,
+ * как это делает MVC при записи ответа gateway. Ответ ожидается в потоке бенчмарка
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GatewayClientBenchmark {
+    @Param({"blocking", "reactive"})
+    private String mode;
+
+    @Param({"true", "false"})
+    private boolean passThrough;
+
+    /**
+     * Размер ответа сервера: 1 КБ, 100 КБ, 1 МБ
+     */
+    @Param({"1024", "102400", "1048576"})
+    private int payloadSize;
+
+    private StubServer server;
+    private ServerExchangeFactory exchangeFactory;
+    private CloseableHttpClient httpClient;
+    private BookingClient bookingClient;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new StubServer(StubServer.bookingsJson(payloadSize));
+
+        ServerClientProperties properties = new ServerClientProperties();
+        properties.setMode(mode);
+        properties.setPassThrough(passThrough);
+        properties.getCache().setEnabled(false);
+
+        GatewayResponseCache responseCache = new GatewayResponseCache(properties, new SimpleMeterRegistry());
+
+        if ("reactive".equals(mode)) {
+            exchangeFactory = new WebClientExchangeFactory(server.getUrl(), properties, responseCache);
+        } else {
+            PooledHttpClientConfig config = new PooledHttpClientConfig();
+            httpClient = config.serverHttpClient(config.serverConnectionManager(properties), properties);
+            HttpComponentsClientHttpRequestFactory requestFactory = config.serverRequestFactory(httpClient);
+
+            exchangeFactory = new RestTemplateExchangeFactory(server.getUrl(), new RestTemplateBuilder(),
+                requestFactory, properties, responseCache);
+        }
+
+        bookingClient = new BookingClient(exchangeFactory);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (exchangeFactory instanceof WebClientExchangeFactory) {
+            ((WebClientExchangeFactory) exchangeFactory).destroy();
+        }
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        server.close();
+    }
+
+    @Benchmark
+    public byte[] getBookings() throws IOException {
+        ResponseEntity<Object> response = bookingClient.getBookings(1L, BookingState.ALL, 0, 10, false).block();
+        Object body = response.getBody();
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException("Сервер-заглушка ответил " + response.getStatusCode());
+        }
+        return body instanceof byte[] ? (byte[]) body : objectMapper.writeValueAsBytes(body);
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.client.BookingClient;
+import ru.practicum.shareit.booking.constants.BookingState;
+import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.client.ServerExchangeFactory;
+import ru.practicum.shareit.client.ServerStreamExchange;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность методов BookingController с журналом аргументов и без него.
+ * Сервер заменен заглушкой, поэтому измеряется только сам контроллер и запись в журнал:
+ * <ul>
+ *     <li>off - уровень INFO, отладочные сообщения с DTO не форматируются</li>
+ *     <li>sync - уровень DEBUG, запись в файл в потоке запроса</li>
+ *     <li>async - уровень DEBUG, запись через AsyncAppender с ограниченной очередью, как в logback-spring.xml</li>
+ * </ul>
+ * Потоков несколько, чтобы была видна конкуренция за синхронный appender
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+    private static final String PATTERN =
+        "%d{yyyy-MM-dd HH:mm:ss.SSS} %5level --- [%15.15thread] %-40.40logger{39} : %msg%n";
+
+    @Param({"off", "sync", "async"})
+    private String mode;
+
+    private BookingController controller;
+    private BookingRequestDto bookingRequestDto;
+    private Appender<ILoggingEvent> appender;
+    private File logFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        Mono<ResponseEntity<Object>> response = Mono.just(ResponseEntity.ok(new byte[]{'[', ']'}));
+        ServerExchange exchange = (method, path, headers, parameters, body) -> response;
+        ServerExchangeFactory exchangeFactory = new ServerExchangeFactory() {
+            @Override
+            public ServerExchange create(String apiPrefix) {
+                return exchange;
+            }
+
+            @Override
+            public ServerStreamExchange createStreaming(String apiPrefix) {
+                return (path, headers, parameters) -> {
+                    throw new UnsupportedOperationException();
+                };
+            }
+        };
+
+        controller = new BookingController(new BookingClient(exchangeFactory));
+        bookingRequestDto = BookingRequestDto.builder()
+            .itemId(42L)
+            .start(LocalDateTime.now().plusDays(1))
+            .end(LocalDateTime.now().plusDays(2))
+            .build();
+
+        logFile = File.createTempFile("logging-benchmark", ".log");
+        configureLogging();
+    }
+
+    @TearDown
+    public void tearDown() {
+        Logger logger = (Logger) LoggerFactory.getLogger(BookingController.class);
+        logger.detachAppender(appender);
+        appender.stop();
+        logFile.delete();
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> createBooking() {
+        return controller.createBooking(1L, bookingRequestDto).block();
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> getBookings() {
+        return controller.getCurrentUserBookings(1L, BookingState.ALL, 0, 20, null).block();
+    }
+
+    private void configureLogging() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setFile(logFile.getAbsolutePath());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        if ("async".equals(mode)) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setDiscardingThreshold(8192 / 5);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.setIncludeCallerData(false);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        } else {
+            appender = fileAppender;
+        }
+
+        Logger logger = (Logger) LoggerFactory.getLogger(BookingController.class);
+        logger.setLevel("off".equals(mode) ? Level.INFO : Level.DEBUG);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+    }
+}
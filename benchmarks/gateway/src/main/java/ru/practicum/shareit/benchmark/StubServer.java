@@ -0,0 +1,74 @@
+package ru.practicum.shareit.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Сервер ShareIt внутри процесса бенчмарка: на любой запрос отдает один и тот же JSON
+ * заданного размера, чтобы измерялся только путь запроса через gateway
+ */
+public class StubServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    static {
+        // иначе заголовки и тело уходят отдельными пакетами и каждый ответ ждет отложенный ACK 40 мс
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    public StubServer(byte[] responseBody) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            try (InputStream requestBody = exchange.getRequestBody()) {
+                requestBody.readAllBytes();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, responseBody.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(responseBody);
+            }
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Массив бронирований в формате ответа сервера размером не меньше {@code size} байт
+     */
+    public static byte[] bookingsJson(int size) {
+        StringBuilder json = new StringBuilder(size + 512).append('[');
+
+        for (int id = 1; json.length() < size; id++) {
+            if (id > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(id)
+                .append(",\"start\":\"2023-01-01T12:00:00\",\"end\":\"2023-01-02T12:00:00\",")
+                .append("\"item\":{\"id\":").append(id % 50 + 1)
+                .append(",\"name\":\"Дрель\",\"description\":\"Аккумуляторная дрель\",\"available\":true,")
+                .append("\"owner\":{\"id\":1,\"name\":\"user 1\",\"email\":\"user1@yandex.ru\"},")
+                .append("\"lastBooking\":null,\"nextBooking\":null,\"comments\":[],\"requestId\":null},")
+                .append("\"booker\":{\"id\":").append(100 + id % 20)
+                .append(",\"name\":\"booker\",\"email\":\"booker@yandex.ru\"},\"status\":\"APPROVED\"}");
+        }
+
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Прежние запросы последнего и следующего бронирования для сравнения в {@link LastNextBookingBenchmark}.
+ * Репозиторий находится в пакете приложения и подключается сканированием Spring Data вместе с репозиториями сервера
+ */
+public interface BaselineBookingRepository extends Repository<Booking, Long> {
+    /**
+     * Все начавшиеся бронирования вещей, из которых оставалось первое для каждой вещи
+     */
+    @Query("select new ru.practicum.shareit.booking.dto.ItemBookingDto(b.item.id, b.id, b.start, b.end," +
+        " b.booker.id, b.status)" +
+        " from Booking b where b.item.id in ?1 and b.ownerId = ?2 and b.status != 'REJECTED' and b.start < ?3" +
+        " order by b.start desc")
+    List<ItemBookingDto> findAllLastBookings(Collection<Long> ids, Long ownerId, LocalDateTime time);
+
+    @Query("select new ru.practicum.shareit.booking.dto.ItemBookingDto(b.item.id, b.id, b.start, b.end," +
+        " b.booker.id, b.status)" +
+        " from Booking b where b.item.id in ?1 and b.ownerId = ?2 and b.status != 'REJECTED' and b.start > ?3" +
+        " order by b.start")
+    List<ItemBookingDto> findAllNextBookings(Collection<Long> ids, Long ownerId, LocalDateTime time);
+
+    /**
+     * По одной строке на вещь, подзапрос связан с бронированием и выполняется для каждого бронирования из истории
+     */
+    @Query("select new ru.practicum.shareit.booking.dto.ItemBookingDto(b.item.id, b.id, b.start, b.end," +
+        " b.booker.id, b.status)" +
+        " from Booking b where b.item.id in ?1 and b.ownerId = ?2 and b.status != 'REJECTED'" +
+        " and b.start = (select max(l.start) from Booking l where l.item = b.item" +
+        " and l.status != 'REJECTED' and l.start < ?3)" +
+        " order by b.id desc")
+    List<ItemBookingDto> findLastBookingsPerBooking(Collection<Long> ids, Long ownerId, LocalDateTime time);
+
+    @Query("select new ru.practicum.shareit.booking.dto.ItemBookingDto(b.item.id, b.id, b.start, b.end," +
+        " b.booker.id, b.status)" +
+        " from Booking b where b.item.id in ?1 and b.ownerId = ?2 and b.status != 'REJECTED'" +
+        " and b.start = (select min(n.start) from Booking n where n.item = b.item" +
+        " and n.status != 'REJECTED' and n.start > ?3)" +
+        " order by b.id")
+    List<ItemBookingDto> findNextBookingsPerBooking(Collection<Long> ids, Long ownerId, LocalDateTime time);
+}
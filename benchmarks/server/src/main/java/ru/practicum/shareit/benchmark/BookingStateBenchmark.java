@@ -0,0 +1,68 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.constants.BookingState;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.common.AppPageRequest;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выбор запроса по {@link BookingState} в BookingServiceImpl и маппинг найденной страницы.
+ * Все запросы репозитория возвращают одну и ту же страницу, поэтому разница между состояниями -
+ * это стоимость разбора строки состояния и ветвления
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingStateBenchmark {
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    private String state;
+
+    private BookingServiceImpl bookingService;
+    private AppPageRequest pageRequest;
+
+    @Setup
+    public void setUp() {
+        List<Booking> page = Fixtures.bookings(PAGE_SIZE);
+        Map<String, Object> results = new HashMap<>();
+
+        for (String finder : List.of("findAllBookingsBy%sId", "findCurrentBookingsBy%sId", "findPastBookingsBy%sId",
+            "findFutureBookingsBy%sId", "findBookingsBy%sIdAndStatus")) {
+            results.put(String.format(finder, "Booker"), page);
+            results.put(String.format(finder, "Owner"), page);
+        }
+
+        bookingService = new BookingServiceImpl(
+            StubRepositories.of(BookingRepository.class, results),
+            StubRepositories.of(UserRepository.class, Map.of()),
+            Fixtures.userCache(Fixtures.OWNER_ID),
+            StubRepositories.of(ItemRepository.class, Map.of()),
+            null, null, null, null
+        );
+        pageRequest = new AppPageRequest(0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> bookerBookings() {
+        return bookingService.getBookings(BookingState.valueOf(state), Fixtures.OWNER_ID, pageRequest);
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> ownerBookings() {
+        return bookingService.getOwnerBookings(BookingState.valueOf(state), Fixtures.OWNER_ID, pageRequest);
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import ru.practicum.shareit.booking.constants.BookingStatus;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comment.dto.ItemCommentDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.cache.CachedUser;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.constants.UserCacheNames;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Детерминированные данные для бенчмарков: страница вещей одного владельца с последним
+ * и следующим бронированием и комментариями, страница бронирований с вещами и арендаторами
+ */
+@UtilityClass
+public class Fixtures {
+    public static final long OWNER_ID = 1L;
+    public static final LocalDateTime NOW = LocalDateTime.of(2023, 1, 1, 12, 0);
+
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+    public static User user(long id) {
+        return User.builder().id(id).name("user " + id).email("user" + id + "@yandex.ru").version(0L).build();
+    }
+
+    /**
+     * Кэш пользователей, в котором пользователь id уже загружен
+     */
+    public static UserCache userCache(long id) {
+        User user = user(id);
+        UserCache userCache = new UserCache(
+            StubRepositories.of(UserRepository.class, Map.of("findSnapshotById",
+                Optional.of(new CachedUser(user.getId(), user.getName(), user.getEmail(), user.getVersion())))),
+            new ConcurrentMapCacheManager(UserCacheNames.USERS)
+        );
+        userCache.find(id);
+        return userCache;
+    }
+
+    public static List<Item> items(int size) {
+        User owner = user(OWNER_ID);
+        List<Item> items = new ArrayList<>(size);
+
+        for (long id = 1; id <= size; id++) {
+            items.add(Item.builder()
+                .id(id)
+                .name("Дрель " + id)
+                .description("Аккумуляторная дрель, два аккумулятора в комплекте " + id)
+                .available(id % 5 != 0)
+                .owner(owner)
+                .version(0L)
+                .build());
+        }
+        return items;
+    }
+
+    public static List<Booking> bookings(int size) {
+        List<Item> items = items(Math.max(1, size / 4));
+        List<Booking> bookings = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            Item item = items.get(i % items.size());
+            LocalDateTime start = NOW.plusHours(i * 7L - size * 3L);
+
+            bookings.add(Booking.builder()
+                .id((long) i + 1)
+                .start(start)
+                .end(start.plusDays(1))
+                .item(item)
+                .booker(user(100L + i % 20))
+                .ownerId(OWNER_ID)
+                .status(STATUSES[i % STATUSES.length])
+                .version(0L)
+                .build());
+        }
+        return bookings;
+    }
+
+    /**
+     * Бронирование каждой вещи: в прошлом для {@code last}, в будущем для {@code next}
+     */
+    public static List<ItemBookingDto> itemBookings(List<Item> items, boolean next) {
+        List<ItemBookingDto> bookings = new ArrayList<>(items.size());
+
+        for (Item item : items) {
+            LocalDateTime start = next ? NOW.plusDays(item.getId()) : NOW.minusDays(item.getId() + 1);
+            bookings.add(new ItemBookingDto(item.getId(), item.getId() * 10 + (next ? 1 : 0), start,
+                start.plusDays(1), 100L + item.getId() % 20, BookingStatus.APPROVED));
+        }
+        return bookings;
+    }
+
+    public static List<ItemCommentDto> comments(List<Item> items, int perItem) {
+        List<ItemCommentDto> comments = new ArrayList<>(items.size() * perItem);
+        int id = 1;
+
+        for (Item item : items) {
+            for (int i = 0; i < perItem; i++) {
+                comments.add(new ItemCommentDto(item.getId(), id++, "Отличная дрель, всё просверлила", "user " + i,
+                    NOW.minusDays(i)));
+            }
+        }
+        return comments;
+    }
+}
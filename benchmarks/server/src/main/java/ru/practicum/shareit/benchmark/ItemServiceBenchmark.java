@@ -0,0 +1,63 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.common.AppPageRequest;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сборка страницы вещей владельца в ItemServiceImpl.getAllItems без базы: группировка
+ * последних и следующих бронирований и комментариев по вещам, setBookingsToDTO и маппинг
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemServiceBenchmark {
+    @Param({"10", "100"})
+    private int pageSize;
+
+    @Param({"0", "5"})
+    private int commentsPerItem;
+
+    private ItemServiceImpl itemService;
+    private AppPageRequest pageRequest;
+
+    @Setup
+    public void setUp() {
+        List<Item> items = Fixtures.items(pageSize);
+
+        itemService = new ItemServiceImpl(
+            StubRepositories.of(ItemRepository.class, Map.of("findByOwnerIdOrderByIdAsc", items)),
+            StubRepositories.of(UserRepository.class, Map.of()),
+            Fixtures.userCache(Fixtures.OWNER_ID),
+            StubRepositories.of(BookingRepository.class, Map.of(
+                "findLastBookingsByItemIdsAndOwnerId", Fixtures.itemBookings(items, false),
+                "findNextBookingsByItemIdsAndOwnerId", Fixtures.itemBookings(items, true)
+            )),
+            StubRepositories.of(CommentRepository.class,
+                Map.of("findItemCommentsByItemIdIn", Fixtures.comments(items, commentsPerItem))),
+            StubRepositories.of(ItemRequestRepository.class, Map.of()),
+            (text, pageable) -> List.of(),
+            null
+        );
+        pageRequest = new AppPageRequest(0, pageSize);
+    }
+
+    @Benchmark
+    public List<ItemResponseDto> getAllItems() {
+        return itemService.getAllItems(Fixtures.OWNER_ID, pageRequest);
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Последнее и следующее бронирование для страницы вещей владельца через репозитории Spring Data
+ * в контексте сервера на H2 (профиль ci):
+ * <ul>
+ *     <li>all - прежние запросы, возвращавшие все прошедшие и все будущие бронирования вещей,
+ *     из которых в ItemServiceImpl оставалось первое для каждой вещи</li>
+ *     <li>perBooking - по одной строке на вещь, подзапрос max/min связан с бронированием
+ *     и выполняется для каждого бронирования из истории вещи</li>
+ *     <li>perItem - BookingRepository.findLastBookingsByItemIdsAndOwnerId и
+ *     findNextBookingsByItemIdsAndOwnerId: подзапрос связан с вещью и выполняется один раз на вещь</li>
+ * </ul>
+ * Прежние варианты объявлены в {@link BaselineBookingRepository}. Результат группируется по вещи, как в ItemServiceImpl
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LastNextBookingBenchmark {
+    private static final long OWNER_ID = 1;
+    private static final long BOOKER_ID = 2;
+    private static final int PAGE_SIZE = 20;
+
+    private static final Set<Long> ITEM_IDS = LongStream.rangeClosed(1, PAGE_SIZE).boxed().collect(Collectors.toSet());
+
+    @Param({"10", "100", "1000"})
+    private int bookingsPerItem;
+
+    @Param({"all", "perBooking", "perItem"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private Query lastBookings;
+    private Query nextBookings;
+
+    @FunctionalInterface
+    private interface Query {
+        List<ItemBookingDto> find(Collection<Long> ids, Long ownerId, LocalDateTime time);
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+            .web(WebApplicationType.NONE)
+            .bannerMode(Banner.Mode.OFF)
+            .logStartupInfo(false)
+            .profiles("ci")
+            .properties("spring.datasource.url=jdbc:h2:mem:last-next-benchmark")
+            .run();
+
+        seed(context.getBean(JdbcTemplate.class));
+
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        BaselineBookingRepository baselineRepository = context.getBean(BaselineBookingRepository.class);
+
+        switch (query) {
+            case "all":
+                lastBookings = baselineRepository::findAllLastBookings;
+                nextBookings = baselineRepository::findAllNextBookings;
+                break;
+            case "perBooking":
+                lastBookings = baselineRepository::findLastBookingsPerBooking;
+                nextBookings = baselineRepository::findNextBookingsPerBooking;
+                break;
+            case "perItem":
+                lastBookings = bookingRepository::findLastBookingsByItemIdsAndOwnerId;
+                nextBookings = bookingRepository::findNextBookingsByItemIdsAndOwnerId;
+                break;
+            default:
+                throw new IllegalArgumentException(query);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int lastAndNextBookings() {
+        LocalDateTime now = LocalDateTime.now();
+
+        return byItemId(lastBookings, now).size() + byItemId(nextBookings, now).size();
+    }
+
+    /**
+     * Первая строка для каждой вещи, как в ItemServiceImpl
+     */
+    private static Map<Long, ItemBookingDto> byItemId(Query query, LocalDateTime now) {
+        return query.find(ITEM_IDS, OWNER_ID, now).stream()
+            .collect(Collectors.toMap(ItemBookingDto::getItemId, Function.identity(), (first, second) -> first));
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        int half = bookingsPerItem / 2;
+
+        jdbcTemplate.update("insert into users (id, name, email) values (?, 'owner', 'owner@mail.ru'),"
+            + " (?, 'booker', 'booker@mail.ru')", OWNER_ID, BOOKER_ID);
+        jdbcTemplate.update("insert into items (id, name, description, is_available, owner_id) "
+            + "select x, 'item' || x, 'description' || x, true, ? from system_range(1, ?)", OWNER_ID, PAGE_SIZE);
+        jdbcTemplate.update("insert into bookings (id, start_date, end_date, item_id, booker_id, owner_id, status) "
+                + "select (i.x - 1) * ? + k.x, dateadd('HOUR', (k.x - ?) * 48 - 12, localtimestamp), "
+                + "dateadd('HOUR', (k.x - ?) * 48 + 12, localtimestamp), i.x, ?, ?, "
+                + "case mod(k.x, 3) when 0 then 'WAITING' when 1 then 'APPROVED' else 'REJECTED' end "
+                + "from system_range(1, ?) i cross join system_range(1, ?) k",
+            bookingsPerItem, half, half, BOOKER_ID, OWNER_ID, PAGE_SIZE, bookingsPerItem);
+        jdbcTemplate.execute("analyze");
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.mapper.UserMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цепочки маппинга сущностей в DTO ответа для страницы из {@code pageSize} элементов.
+ * Повторяют маппинг в BookingServiceImpl.mapBookingToDTO и ItemServiceImpl.setBookingsToDTO
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private List<Booking> bookings;
+    private List<Item> items;
+    private List<ItemBookingDto> lastBookings;
+    private List<ItemBookingDto> nextBookings;
+
+    @Setup
+    public void setUp() {
+        bookings = Fixtures.bookings(pageSize);
+        items = Fixtures.items(pageSize);
+        lastBookings = Fixtures.itemBookings(items, false);
+        nextBookings = Fixtures.itemBookings(items, true);
+    }
+
+    @Benchmark
+    public void bookingResponsePage(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(BookingMapper.toResponseDto(booking, UserMapper.toDto(booking.getBooker()),
+                ItemMapper.toResponseDto(booking.getItem(), UserMapper.toDto(booking.getItem().getOwner()))
+            ));
+        }
+    }
+
+    @Benchmark
+    public void itemResponsePage(Blackhole blackhole) {
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            ItemResponseDto itemResponseDto = ItemMapper.toResponseDto(item, UserMapper.toDto(item.getOwner()));
+
+            itemResponseDto.setLastBooking(BookingMapper.toItemResponseDto(lastBookings.get(i)));
+            itemResponseDto.setNextBooking(BookingMapper.toItemResponseDto(nextBookings.get(i)));
+            blackhole.consume(itemResponseDto);
+        }
+    }
+}
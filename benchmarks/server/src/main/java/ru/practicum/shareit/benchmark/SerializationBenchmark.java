@@ -0,0 +1,78 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.comment.dto.ItemCommentDto;
+import ru.practicum.shareit.comment.mapper.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.mapper.UserMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сериализация страниц ответа в JSON. ObjectMapper собирается так же, как в Spring Boot:
+ * даты в формате ISO, без записи числом
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private List<ItemResponseDto> itemPage;
+    private List<BookingResponseDto> bookingPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<Item> items = Fixtures.items(pageSize);
+        List<ItemCommentDto> comments = Fixtures.comments(items, 2);
+        itemPage = new ArrayList<>(pageSize);
+
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            ItemResponseDto itemResponseDto = ItemMapper.toResponseDto(item, UserMapper.toDto(item.getOwner()));
+
+            itemResponseDto.setLastBooking(
+                BookingMapper.toItemResponseDto(Fixtures.itemBookings(List.of(item), false).get(0))
+            );
+            itemResponseDto.setComments(comments.subList(i * 2, i * 2 + 2).stream()
+                .map(CommentMapper::toResponseDto)
+                .collect(Collectors.toList()));
+            itemPage.add(itemResponseDto);
+        }
+
+        bookingPage = new ArrayList<>(pageSize);
+        for (Booking booking : Fixtures.bookings(pageSize)) {
+            bookingPage.add(BookingMapper.toResponseDto(booking, UserMapper.toDto(booking.getBooker()),
+                ItemMapper.toResponseDto(booking.getItem(), UserMapper.toDto(booking.getItem().getOwner()))
+            ));
+        }
+    }
+
+    @Benchmark
+    public byte[] itemPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(itemPage);
+    }
+
+    @Benchmark
+    public byte[] bookingPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookingPage);
+    }
+}
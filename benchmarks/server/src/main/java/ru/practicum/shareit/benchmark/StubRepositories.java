@@ -0,0 +1,54 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.experimental.UtilityClass;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Репозитории Spring Data без базы: методы из {@code results} возвращают заданное значение,
+ * остальные - пустой список, пустой Optional или null. Так сервисы измеряются без JDBC
+ */
+@UtilityClass
+public class StubRepositories {
+    public static <T> T of(Class<T> type, Map<String, Object> results) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return objectMethod(self, method, args);
+            }
+            if (results.containsKey(method.getName())) {
+                return results.get(method.getName());
+            }
+            return emptyResult(method.getReturnType());
+        });
+
+        return type.cast(proxy);
+    }
+
+    private static Object objectMethod(Object self, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return self == args[0];
+            case "hashCode":
+                return System.identityHashCode(self);
+            default:
+                return "Stub" + self.getClass().getInterfaces()[0].getSimpleName();
+        }
+    }
+
+    private static Object emptyResult(Class<?> returnType) {
+        if (returnType == List.class) {
+            return List.of();
+        }
+        if (returnType == Optional.class) {
+            return Optional.empty();
+        }
+        if (returnType == boolean.class) {
+            return false;
+        }
+        return null;
+    }
+}
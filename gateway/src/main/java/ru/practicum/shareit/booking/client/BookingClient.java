@@ -1,16 +1,18 @@
 package ru.practicum.shareit.booking.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.constants.BookingState;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerExchangeFactory;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,35 +20,52 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-            builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+    public BookingClient(ServerExchangeFactory exchangeFactory) {
+        super(exchangeFactory.create(API_PREFIX), exchangeFactory.createStreaming(API_PREFIX));
     }
 
-    public ResponseEntity<Object> getBookings(
+    public Mono<ResponseEntity<Object>> getBookings(
         long userId, BookingState state, Integer from, Integer size, boolean isOwner
     ) {
-        Map<String, Object> parameters = Map.of(
+        return getBookings(userId, state, from, size, null, isOwner);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookings(
+        long userId, BookingState state, Integer from, Integer size, @Nullable String after, boolean isOwner
+    ) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
             "state", state.name(),
             "from", from,
             "size", size
-        );
+        ));
 
         String ownerPrefix = isOwner ? "/owner" : "";
+        String path = ownerPrefix + "?state={state}&from={from}&size={size}";
 
-        return get(ownerPrefix + "?state={state}&from={from}&size={size}", userId, parameters);
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+
+        return get(path, userId, parameters);
     }
 
 
-    public ResponseEntity<Object> createNewBooking(BookingRequestDto requestDto, long userId) {
+    public Mono<ResponseEntity<StreamingResponseBody>> exportBookings(long userId, String format, boolean isOwner) {
+        Map<String, Object> parameters = Map.of(
+            "format", format
+        );
+
+        String ownerPrefix = isOwner ? "/owner" : "";
+
+        return stream(ownerPrefix + "/export?format={format}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> createNewBooking(BookingRequestDto requestDto, long userId) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> updateBooking(long bookingId, boolean approved, long userId) {
+    public Mono<ResponseEntity<Object>> updateBooking(long bookingId, boolean approved, long userId) {
         Map<String, Object> parameters = Map.of(
             "approved", approved
         );
@@ -54,7 +73,19 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> createNewBookings(List<BookingRequestDto> requestDtos, long userId) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> updateBookings(List<Long> bookingIds, boolean approved, long userId) {
+        Map<String, Object> parameters = Map.of(
+            "approved", approved
+        );
+
+        return patch("/batch?approved={approved}", userId, parameters, bookingIds);
+    }
+
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 }
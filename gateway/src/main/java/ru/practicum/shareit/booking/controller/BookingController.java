@@ -7,6 +7,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.client.BookingClient;
 import ru.practicum.shareit.booking.constants.BookingState;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
@@ -14,8 +16,12 @@ import ru.practicum.shareit.constant.AppErrorMessage;
 import ru.practicum.shareit.constant.CustomHeaders;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -27,35 +33,80 @@ public class BookingController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createBooking(
+    public Mono<ResponseEntity<Object>> createBooking(
         @RequestHeader(name = CustomHeaders.USER_ID_HEADER) long userId,
         @Valid @RequestBody BookingRequestDto bookingRequestDto
     ) {
-        log.info("Create booking={}, userId={}", bookingRequestDto, userId);
+        log.debug("Create booking={}, userId={}", bookingRequestDto, userId);
         return bookingClient.createNewBooking(bookingRequestDto, userId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateBooking(
+    public Mono<ResponseEntity<Object>> updateBooking(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
         @RequestParam(required = false) boolean approved,
         @PathVariable long bookingId
     ) {
-        log.info("Patch bookingId={}, approved={}, userId={}", bookingId, approved, userId);
+        log.debug("Patch bookingId={}, approved={}, userId={}", bookingId, approved, userId);
         return bookingClient.updateBooking(bookingId, approved, userId);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBookings(
+        @RequestHeader(name = CustomHeaders.USER_ID_HEADER) long userId,
+        @RequestBody
+        @Size(min = 1, max = 100, message = AppErrorMessage.BATCH_SIZE)
+        List<@Valid BookingRequestDto> bookingRequestDtos
+    ) {
+        log.debug("Create bookings={}, userId={}", bookingRequestDtos, userId);
+        return bookingClient.createNewBookings(bookingRequestDtos, userId);
+    }
+
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<Object>> updateBookings(
+        @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
+        @RequestParam boolean approved,
+        @RequestBody
+        @Size(min = 1, max = 100, message = AppErrorMessage.BATCH_SIZE)
+        List<@NotNull Long> bookingIds
+    ) {
+        log.debug("Patch bookingIds={}, approved={}, userId={}", bookingIds, approved, userId);
+        return bookingClient.updateBookings(bookingIds, approved, userId);
+    }
+
+    @GetMapping("/export")
+    public Mono<ResponseEntity<StreamingResponseBody>> exportBookings(
+        @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
+        @RequestParam(defaultValue = "NDJSON")
+        @Pattern(regexp = "NDJSON|CSV", message = AppErrorMessage.EXPORT_FORMAT)
+        String format
+    ) {
+        log.debug("Export bookings with format={}, userId={}", format, userId);
+        return bookingClient.exportBookings(userId, format, false);
+    }
+
+    @GetMapping("/owner/export")
+    public Mono<ResponseEntity<StreamingResponseBody>> exportOwnerBookings(
+        @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
+        @RequestParam(defaultValue = "NDJSON")
+        @Pattern(regexp = "NDJSON|CSV", message = AppErrorMessage.EXPORT_FORMAT)
+        String format
+    ) {
+        log.debug("Export owner bookings with format={}, userId={}", format, userId);
+        return bookingClient.exportBookings(userId, format, true);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(
+    public Mono<ResponseEntity<Object>> getBookingById(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
         @PathVariable Long bookingId
     ) {
-        log.info("Get booking by id {}, userId={}", bookingId, userId);
+        log.debug("Get booking by id {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getCurrentUserBookings(
+    public Mono<ResponseEntity<Object>> getCurrentUserBookings(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
         @RequestParam(required = false, defaultValue = "ALL") BookingState state,
         @RequestParam(defaultValue = "0")
@@ -63,14 +114,15 @@ public class BookingController {
         Integer from,
         @RequestParam(defaultValue = "10")
         @Positive(message = AppErrorMessage.SIZE_IS_NOT_POSITIVE)
-        Integer size
+        Integer size,
+        @RequestParam(required = false) String after
     ) {
-        log.info("Get bookings with state={}, userId={}, from={}, size={}", state, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size, false);
+        log.debug("Get bookings with state={}, userId={}, from={}, size={}, after={}", state, userId, from, size, after);
+        return bookingClient.getBookings(userId, state, from, size, after, false);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getCurrentUserAllItemsBookings(
+    public Mono<ResponseEntity<Object>> getCurrentUserAllItemsBookings(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
         @RequestParam(required = false, defaultValue = "ALL") BookingState state,
         @RequestParam(defaultValue = "0")
@@ -78,10 +130,13 @@ public class BookingController {
         Integer from,
         @RequestParam(defaultValue = "10")
         @Positive(message = AppErrorMessage.SIZE_IS_NOT_POSITIVE)
-        Integer size
+        Integer size,
+        @RequestParam(required = false) String after
     ) {
-        log.info("Get owner bookings with state={}, userId={}, from={}, size={}", state, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size, true);
+        log.debug("Get owner bookings with state={}, userId={}, from={}, size={}, after={}",
+            state, userId, from, size, after
+        );
+        return bookingClient.getBookings(userId, state, from, size, after, true);
     }
 
 
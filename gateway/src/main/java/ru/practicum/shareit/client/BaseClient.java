@@ -2,116 +2,150 @@ package ru.practicum.shareit.client;
 
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.constant.CustomHeaders;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
+/**
+ * Запросы к серверу ShareIt. Ответ возвращается как {@link Mono}: контроллеры отдают его Spring MVC,
+ * и в режиме reactive поток Tomcat освобождается до получения ответа сервера
+ */
 public class BaseClient {
-    protected final RestTemplate rest;
+    /**
+     * Заголовки, относящиеся к соединению gateway с сервером, а не к ответу
+     */
+    private static final Set<String> HOP_BY_HOP_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    static {
+        HOP_BY_HOP_HEADERS.addAll(List.of(
+            HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.TRANSFER_ENCODING, HttpHeaders.TE,
+            HttpHeaders.TRAILER, HttpHeaders.UPGRADE, HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.PROXY_AUTHORIZATION
+        ));
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    protected final ServerExchange exchange;
+    @Nullable
+    protected final ServerStreamExchange streamExchange;
+
+    public BaseClient(ServerExchange exchange) {
+        this(exchange, null);
+    }
+
+    public BaseClient(ServerExchange exchange, @Nullable ServerStreamExchange streamExchange) {
+        this.exchange = exchange;
+        this.streamExchange = streamExchange;
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static <T> ResponseEntity<T> prepareGatewayResponse(ResponseEntity<T> response) {
+        HttpHeaders headers = new HttpHeaders();
+
+        response.getHeaders().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name)) {
+                headers.addAll(name, values);
+            }
+        });
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        // тело, разобранное в объект, будет сериализовано заново и может изменить длину
+        if (!(response.getBody() instanceof byte[])) {
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
         }
 
-        return responseBuilder.build();
+        return ResponseEntity.status(response.getStatusCode()).headers(headers).body(response.getBody());
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(
+        String path, Long userId, @Nullable Map<String, Object> parameters
+    ) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(
+    protected <T> Mono<ResponseEntity<Object>> post(
         String path, Long userId, @Nullable Map<String, Object> parameters, T body
     ) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(
+    protected <T> Mono<ResponseEntity<Object>> put(
         String path, long userId, @Nullable Map<String, Object> parameters, T body
     ) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(
+    protected <T> Mono<ResponseEntity<Object>> patch(
         String path, Long userId, @Nullable Map<String, Object> parameters, T body
     ) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(
+        String path, Long userId, @Nullable Map<String, Object> parameters
+    ) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(
-        HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body
+    protected Mono<ResponseEntity<StreamingResponseBody>> stream(
+        String path, long userId, @Nullable Map<String, Object> parameters
     ) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        if (streamExchange == null) {
+            throw new IllegalStateException("Клиент создан без потоковой передачи ответов");
         }
-        return prepareGatewayResponse(shareitServerResponse);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(CustomHeaders.USER_ID_HEADER, String.valueOf(userId));
+
+        return streamExchange.stream(path, headers, parameters).map(BaseClient::prepareGatewayResponse);
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(
+        HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body
+    ) {
+        return exchange.exchange(method, path, defaultHeaders(userId), parameters, body)
+            .map(BaseClient::prepareGatewayResponse);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
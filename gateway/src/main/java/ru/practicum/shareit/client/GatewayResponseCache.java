@@ -0,0 +1,165 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.constant.CustomHeaders;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш ответов сервера на GET запросы, ключ - префикс API, путь, параметры и X-Sharer-User-Id.
+ * <p>
+ * В течение freshFor ответ отдается из кэша, затем перепроверяется на сервере по ETag:
+ * на 304 используется сохраненное тело. По умолчанию freshFor равен нулю и каждый ответ
+ * перепроверяется, поэтому изменения, сделанные другими пользователями и вложенные
+ * в ответ (вещь в бронировании, бронирования и комментарии в вещи), видны сразу.
+ * Успешный запрос на изменение удаляет ответы того же префикса API и того же пользователя:
+ * ответы с более ранним поколением, чем последняя запись в их области, считаются удаленными
+ */
+@Component
+public class GatewayResponseCache {
+    private static final String CACHE_NAME = "gateway-responses";
+
+    private final boolean enabled;
+    private final long freshForNanos;
+    private final Cache<String, CachedResponse> cache;
+
+    /**
+     * Поколение последней успешной записи для области "префикс API и пользователь".
+     * Хранится не дольше ответов, поэтому после удаления записи устаревших ответов области уже нет
+     */
+    private final Cache<String, Long> writes;
+
+    /**
+     * Увеличивается при каждой успешной записи, чтобы не сохранить ответ, прочитанный до нее
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public GatewayResponseCache(ServerClientProperties properties, MeterRegistry meterRegistry) {
+        ServerClientProperties.Cache cacheProperties = properties.getCache();
+
+        this.enabled = cacheProperties.isEnabled();
+        this.freshForNanos = cacheProperties.getFreshFor().toNanos();
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(cacheProperties.getMaxSize())
+            .expireAfterWrite(cacheProperties.getTtl())
+            .recordStats()
+            .build();
+        this.writes = Caffeine.newBuilder()
+            .expireAfterWrite(cacheProperties.getTtl())
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public ServerExchange decorate(String apiPrefix, ServerExchange exchange) {
+        if (!enabled) {
+            return exchange;
+        }
+
+        return (method, path, headers, parameters, body) -> {
+            if (method == HttpMethod.GET) {
+                return Mono.defer(() -> get(exchange, apiPrefix, path, headers, parameters));
+            }
+
+            return exchange.exchange(method, path, headers, parameters, body).doOnNext(response -> {
+                if (response.getStatusCode().is2xxSuccessful()) {
+                    writes.put(scope(apiPrefix, headers), generation.incrementAndGet());
+                }
+            });
+        };
+    }
+
+    private Mono<ResponseEntity<Object>> get(
+        ServerExchange exchange, String apiPrefix, String path, HttpHeaders headers,
+        @Nullable Map<String, Object> parameters
+    ) {
+        String scope = scope(apiPrefix, headers);
+        String key = apiPrefix + path + '|' + (parameters != null ? new TreeMap<>(parameters) : "") + '|' + scope;
+        CachedResponse cached = cache.getIfPresent(key);
+
+        if (cached != null && cached.generation < lastWrite(scope)) {
+            cache.invalidate(key);
+            cached = null;
+        }
+
+        if (cached != null && System.nanoTime() - cached.validatedAt.get() < freshForNanos) {
+            return Mono.just(cached.response);
+        }
+
+        long currentGeneration = generation.get();
+
+        if (cached != null && cached.eTag != null) {
+            headers.setIfNoneMatch(cached.eTag);
+        }
+
+        CachedResponse validated = cached;
+
+        return exchange.exchange(HttpMethod.GET, path, headers, parameters, null).map(response -> {
+            if (validated != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                validated.validatedAt.set(System.nanoTime());
+                return validated.response;
+            }
+
+            if (response.getStatusCode() == HttpStatus.OK && isStorable(response)) {
+                cache.put(key, new CachedResponse(response, response.getHeaders().getETag(), currentGeneration));
+
+                // запись могла пройти между запросом к серверу и сохранением ответа
+                if (lastWrite(scope) > currentGeneration) {
+                    cache.invalidate(key);
+                }
+            }
+
+            return response;
+        });
+    }
+
+    private long lastWrite(String scope) {
+        Long written = writes.getIfPresent(scope);
+        return written != null ? written : 0;
+    }
+
+    private static boolean isStorable(ResponseEntity<Object> response) {
+        String cacheControl = response.getHeaders().getCacheControl();
+        return cacheControl == null || !cacheControl.contains(CacheControl.noStore().getHeaderValue());
+    }
+
+    private static String scope(String apiPrefix, HttpHeaders headers) {
+        return apiPrefix + '|' + headers.getFirst(CustomHeaders.USER_ID_HEADER);
+    }
+
+    private static class CachedResponse {
+        private final ResponseEntity<Object> response;
+        @Nullable
+        private final String eTag;
+
+        /**
+         * Поколение записей на момент запроса к серверу
+         */
+        private final long generation;
+
+        /**
+         * Время последней проверки на сервере, обновляется на 304 без повторного помещения в кэш,
+         * чтобы не продлевать срок хранения ответа
+         */
+        private final AtomicLong validatedAt = new AtomicLong(System.nanoTime());
+
+        private CachedResponse(ResponseEntity<Object> response, @Nullable String eTag, long generation) {
+            this.response = response;
+            this.eTag = eTag;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий пул соединений Apache HttpClient для всех клиентов в режиме blocking.
+ * Состояние пула публикуется в метриках httpcomponents.httpclient.pool.*,
+ * время ожидания свободного соединения - в shareit.server.client.lease.wait
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.client.mode", havingValue = "blocking", matchIfMissing = true)
+public class PooledHttpClientConfig {
+    private static final String POOL_NAME = "shareit-server";
+
+    @Bean
+    public InstrumentedConnectionManager serverConnectionManager(ServerClientProperties properties) {
+        InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager();
+
+        connectionManager.setMaxTotal(properties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+        connectionManager.setValidateAfterInactivity(
+            (int) properties.getValidateAfterInactivity().toMillis()
+        );
+
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient serverHttpClient(
+        InstrumentedConnectionManager serverConnectionManager, ServerClientProperties properties
+    ) {
+        long maxIdleMillis = properties.getMaxIdleTime().toMillis();
+
+        // соединение не переиспользуется дольше maxIdleTime, даже если сервер разрешает больше
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, maxIdleMillis) : maxIdleMillis;
+        };
+
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+            .setSocketTimeout((int) properties.getResponseTimeout().toMillis())
+            .setConnectionRequestTimeout((int) properties.getPendingAcquireTimeout().toMillis())
+            .build();
+
+        return HttpClients.custom()
+            .setConnectionManager(serverConnectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .setKeepAliveStrategy(keepAliveStrategy)
+            .evictExpiredConnections()
+            .evictIdleConnections(maxIdleMillis, TimeUnit.MILLISECONDS)
+            .build();
+    }
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory serverRequestFactory(CloseableHttpClient serverHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+    }
+
+    /**
+     * Пул соединений, публикующий свои метрики и время ожидания свободного соединения
+     */
+    static class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager implements MeterBinder {
+        private volatile Timer leaseWait;
+
+        @Override
+        public void bindTo(MeterRegistry registry) {
+            new PoolingHttpClientConnectionManagerMetricsBinder(this, POOL_NAME).bindTo(registry);
+            leaseWait = Timer.builder("shareit.server.client.lease.wait")
+                .description("Время ожидания свободного соединения с сервером")
+                .tag("pool", POOL_NAME)
+                .register(registry);
+        }
+
+        @Override
+        public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+            ConnectionRequest request = super.requestConnection(route, state);
+
+            return new ConnectionRequest() {
+                @Override
+                public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                    long start = System.nanoTime();
+                    try {
+                        return request.get(timeout, timeUnit);
+                    } finally {
+                        Timer timer = leaseWait;
+                        if (timer != null) {
+                            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return request.cancel();
+                }
+            };
+        }
+    }
+}
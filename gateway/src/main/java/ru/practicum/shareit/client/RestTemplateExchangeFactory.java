@@ -0,0 +1,105 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Блокирующий клиент на RestTemplate, поток Tomcat занят на все время запроса к серверу:
+ * запрос выполняется при подписке, а Spring MVC подписывается на ответ контроллера в потоке Tomcat.
+ * Все клиенты используют общий пул соединений из {@link PooledHttpClientConfig}
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-server.client.mode", havingValue = "blocking", matchIfMissing = true)
+public class RestTemplateExchangeFactory implements ServerExchangeFactory {
+    private final String serverUrl;
+    private final RestTemplateBuilder builder;
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
+    private final Class<Object> bodyType;
+    private final GatewayResponseCache responseCache;
+
+    @SuppressWarnings("unchecked")
+    public RestTemplateExchangeFactory(
+        @Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+        HttpComponentsClientHttpRequestFactory serverRequestFactory, ServerClientProperties properties,
+        GatewayResponseCache responseCache
+    ) {
+        this.serverUrl = serverUrl;
+        this.builder = builder;
+        this.requestFactory = serverRequestFactory;
+        this.bodyType = (Class<Object>) (properties.isPassThrough() ? byte[].class : Object.class);
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public ServerExchange create(String apiPrefix) {
+        RestTemplate rest = builder
+            .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + apiPrefix))
+            .requestFactory(() -> requestFactory)
+            .build();
+
+        ServerExchange exchange = (method, path, headers, parameters, body) -> Mono.fromCallable(() -> {
+            HttpEntity<Object> requestEntity = new HttpEntity<>(body, headers);
+
+            try {
+                if (parameters != null) {
+                    return rest.exchange(path, method, requestEntity, bodyType, parameters);
+                }
+                return rest.exchange(path, method, requestEntity, bodyType);
+            } catch (HttpStatusCodeException e) {
+                return ResponseEntity.status(e.getStatusCode())
+                    .headers(e.getResponseHeaders())
+                    .body(e.getResponseBodyAsByteArray());
+            }
+        });
+
+        return responseCache.decorate(apiPrefix, exchange);
+    }
+
+    /**
+     * Запрос выполняется напрямую через фабрику запросов, минуя RestTemplate, чтобы соединение
+     * оставалось открытым после возврата заголовков. Оно возвращается в пул после копирования тела
+     */
+    @Override
+    public ServerStreamExchange createStreaming(String apiPrefix) {
+        DefaultUriBuilderFactory uriFactory = new DefaultUriBuilderFactory(serverUrl + apiPrefix);
+
+        return (path, headers, parameters) -> Mono.fromCallable(() -> {
+            URI uri = uriFactory.expand(path, parameters != null ? parameters : Map.of());
+
+            try {
+                ClientHttpRequest request = requestFactory.createRequest(uri, HttpMethod.GET);
+                request.getHeaders().addAll(headers);
+
+                ClientHttpResponse response = request.execute();
+                StreamingResponseBody body = out -> {
+                    try (response) {
+                        StreamUtils.copy(response.getBody(), out);
+                    }
+                };
+
+                return ResponseEntity.status(response.getRawStatusCode()).headers(response.getHeaders()).body(body);
+            } catch (IOException e) {
+                throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+            }
+        });
+    }
+}
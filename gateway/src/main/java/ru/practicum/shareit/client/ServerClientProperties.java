@@ -0,0 +1,104 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Настройки HTTP клиента до сервера ShareIt
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit-server.client")
+public class ServerClientProperties {
+    /**
+     * Режим клиента: blocking (RestTemplate) или reactive (WebClient на Netty)
+     */
+    private String mode = "blocking";
+
+    /**
+     * Возвращать тело ответа сервера без разбора и повторной сериализации JSON
+     */
+    private boolean passThrough = true;
+
+    /**
+     * Максимальное количество соединений с сервером
+     */
+    private int maxConnections = 200;
+
+    /**
+     * Максимальное количество соединений на один маршрут. Gateway обращается к единственному
+     * серверу, поэтому значение совпадает с общим ограничением
+     */
+    private int maxConnectionsPerRoute = 200;
+
+    /**
+     * Максимальная длина очереди запросов, ожидающих свободное соединение (режим reactive).
+     * Запросы сверх очереди сразу отклоняются со статусом 503
+     */
+    private int pendingAcquireMaxCount = 1000;
+
+    /**
+     * Максимальное время ожидания свободного соединения
+     */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Время бездействия, после которого соединение закрывается
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    /**
+     * Время простоя, после которого соединение из пула проверяется перед использованием
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * Таймаут установки соединения
+     */
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Таймаут ожидания ответа сервера
+     */
+    private Duration responseTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Максимальный размер тела ответа, буферизуемого в памяти (режим reactive).
+     * По умолчанию WebClient ограничивает его 256 КБ, и большие страницы завершались ошибкой
+     */
+    private DataSize maxInMemorySize = DataSize.ofMegabytes(16);
+
+    /**
+     * Кэш ответов на GET запросы
+     */
+    private final Cache cache = new Cache();
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private boolean enabled = true;
+
+        /**
+         * Максимальное количество закэшированных ответов
+         */
+        private long maxSize = 10_000;
+
+        /**
+         * Время хранения ответа, после которого он удаляется из кэша
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        /**
+         * Время, в течение которого ответ отдается без обращения к серверу.
+         * После него ответ перепроверяется на сервере через If-None-Match. При нуле ответ
+         * перепроверяется всегда: без обращения к серверу не видны изменения других пользователей
+         */
+        private Duration freshFor = Duration.ZERO;
+    }
+}
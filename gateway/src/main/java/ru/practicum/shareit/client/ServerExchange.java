@@ -0,0 +1,22 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Отправка запроса на сервер ShareIt относительно префикса API клиента.
+ * Ответ возвращается со статусом и заголовками сервера. Тело ответа с ошибкой, а в режиме
+ * pass-through и любого ответа, возвращается массивом байт без разбора JSON.
+ * Запрос отправляется при подписке на результат
+ */
+public interface ServerExchange {
+    Mono<ResponseEntity<Object>> exchange(
+        HttpMethod method, String path, HttpHeaders headers, @Nullable Map<String, Object> parameters,
+        @Nullable Object body
+    );
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Создание {@link ServerExchange} и {@link ServerStreamExchange} для клиента с заданным префиксом API.
+ * Реализация выбирается свойством shareit-server.client.mode
+ */
+public interface ServerExchangeFactory {
+    ServerExchange create(String apiPrefix);
+
+    ServerStreamExchange createStreaming(String apiPrefix);
+}
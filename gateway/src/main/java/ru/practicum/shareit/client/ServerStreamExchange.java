@@ -0,0 +1,20 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * GET запрос на сервер ShareIt, тело ответа которого не читается целиком.
+ * Статус и заголовки возвращаются сразу, а тело копируется клиенту по мере получения
+ * при записи ответа. Ответы не проходят через {@link GatewayResponseCache}
+ */
+public interface ServerStreamExchange {
+    Mono<ResponseEntity<StreamingResponseBody>> stream(
+        String path, HttpHeaders headers, @Nullable Map<String, Object> parameters
+    );
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.util.Map;
+
+/**
+ * Клиент на WebClient и Netty с общим ограниченным пулом соединений.
+ * Ввод-вывод выполняется на event loop Netty, контроллеры возвращают {@link Mono}, и поток Tomcat
+ * освобождается сразу после отправки запроса: ответ записывается при асинхронной обработке MVC.
+ * При заполненной очереди ожидания соединения запрос сразу завершается ошибкой,
+ * вместо того чтобы копить потоки Tomcat на медленном сервере
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-server.client.mode", havingValue = "reactive")
+public class WebClientExchangeFactory implements ServerExchangeFactory, DisposableBean {
+    private final String serverUrl;
+    private final ConnectionProvider connectionProvider;
+    private final ReactorClientHttpConnector connector;
+    private final int maxInMemorySize;
+    private final Class<Object> bodyType;
+    private final GatewayResponseCache responseCache;
+
+    @SuppressWarnings("unchecked")
+    public WebClientExchangeFactory(
+        @Value("${shareit-server.url}") String serverUrl, ServerClientProperties properties,
+        GatewayResponseCache responseCache
+    ) {
+        this.serverUrl = serverUrl;
+        this.responseCache = responseCache;
+        this.bodyType = (Class<Object>) (properties.isPassThrough() ? byte[].class : Object.class);
+        this.connectionProvider = ConnectionProvider.builder("shareit-server")
+            .maxConnections(properties.getMaxConnections())
+            .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+            .maxIdleTime(properties.getMaxIdleTime())
+            .metrics(true)
+            .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+            .responseTimeout(properties.getResponseTimeout())
+            .keepAlive(true);
+
+        this.connector = new ReactorClientHttpConnector(httpClient);
+        this.maxInMemorySize = (int) properties.getMaxInMemorySize().toBytes();
+    }
+
+    @Override
+    public ServerExchange create(String apiPrefix) {
+        WebClient webClient = WebClient.builder()
+            .baseUrl(serverUrl + apiPrefix)
+            .clientConnector(connector)
+            .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize))
+            .build();
+
+        ServerExchange exchange = (method, path, headers, parameters, body) -> webClient.method(method)
+            .uri(path, parameters != null ? parameters : Map.of())
+            .headers(requestHeaders -> requestHeaders.addAll(headers))
+            .body(body != null ? BodyInserters.fromValue(body) : BodyInserters.empty())
+            .exchangeToMono(response -> response.statusCode().is2xxSuccessful()
+                ? response.toEntity(bodyType)
+                : response.toEntity(byte[].class)
+                    .map(error -> new ResponseEntity<Object>(
+                        error.getBody(), error.getHeaders(), error.getStatusCode()
+                    ))
+            );
+
+        return responseCache.decorate(apiPrefix, exchange);
+    }
+
+    /**
+     * Ответ с ошибкой не превращается в исключение, а передается клиенту как есть.
+     * Тело читается из Netty только по мере записи в ответ gateway: запись выполняет
+     * исполнитель асинхронных ответов MVC, а не поток Tomcat
+     */
+    @Override
+    public ServerStreamExchange createStreaming(String apiPrefix) {
+        WebClient webClient = WebClient.builder()
+            .baseUrl(serverUrl + apiPrefix)
+            .clientConnector(connector)
+            .build();
+
+        return (path, headers, parameters) -> webClient.get()
+            .uri(path, parameters != null ? parameters : Map.of())
+            .headers(requestHeaders -> requestHeaders.addAll(headers))
+            .retrieve()
+            .onStatus(HttpStatus::isError, error -> Mono.empty())
+            .toEntityFlux(DataBuffer.class)
+            .map(response -> {
+                StreamingResponseBody body = out -> DataBufferUtils.write(response.getBody(), out)
+                    .map(DataBufferUtils::release)
+                    .blockLast();
+
+                return ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders()).body(body);
+            });
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.dispose();
+    }
+}
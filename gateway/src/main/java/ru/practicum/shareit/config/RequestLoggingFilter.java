@@ -0,0 +1,101 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.constant.CustomHeaders;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Журнал запросов в формате ключ=значение: метод, путь, статус, время и пользователь.
+ * Пишется доля shareit.request-log.sample-rate запросов на уровне INFO, а также все ответы 5xx
+ * и запросы дольше shareit.request-log.slow-threshold на уровне WARN. Тела запросов в журнал не попадают,
+ * DTO пишутся контроллерами только на уровне DEBUG
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.request-log.enabled", havingValue = "true")
+public class RequestLoggingFilter extends OncePerRequestFilter {
+    private static final String FORMAT = "method={} uri={} status={} durationMs={} userId={}";
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public RequestLoggingFilter(
+        @Value("${shareit.request-log.sample-rate}") double sampleRate,
+        @Value("${shareit.request-log.slow-threshold}") Duration slowThreshold
+    ) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request, HttpServletResponse response, FilterChain filterChain
+    ) throws ServletException, IOException {
+        long start = System.nanoTime();
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (isAsyncStarted(request)) {
+                logOnComplete(request, response, start);
+            } else {
+                logRequest(request.getMethod(), request.getRequestURI(), request.getHeader(CustomHeaders.USER_ID_HEADER),
+                    response.getStatus(), System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Контроллеры возвращают Mono, и ответ записывается уже после выхода из фильтра,
+     * поэтому статус и время берутся при завершении асинхронной обработки
+     */
+    private void logOnComplete(HttpServletRequest request, HttpServletResponse response, long start) {
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        String userId = request.getHeader(CustomHeaders.USER_ID_HEADER);
+
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                logRequest(method, uri, userId, response.getStatus(), System.nanoTime() - start);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+    }
+
+    /**
+     * Ответы 5xx и медленные запросы пишутся на уровне WARN: асинхронный журнал отбрасывает INFO
+     * при заполнении очереди, а именно эти строки нужны при перегрузке
+     */
+    private void logRequest(String method, String uri, String userId, int status, long elapsed) {
+        if (status >= 500 || elapsed >= slowThresholdNanos) {
+            log.warn(FORMAT, method, uri, status, elapsed / 1_000_000, userId);
+        } else if (log.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.info(FORMAT, method, uri, status, elapsed / 1_000_000, userId);
+        }
+    }
+}
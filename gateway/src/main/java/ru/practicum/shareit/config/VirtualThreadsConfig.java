@@ -0,0 +1,59 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Обработка запросов на виртуальных потоках, включается свойством shareit.virtual-threads.enabled.
+ * Поток на каждый запрос Tomcat и асинхронные ответы MVC создается заново и не ограничен пулом
+ * из 200 потоков, а ожидание ввода-вывода не занимает поток ОС.
+ * Проект собирается под Java 11, поэтому исполнитель создается через reflection. На JDK без
+ * виртуальных потоков (до 21) остаются стандартные пулы
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> newVirtualThreadPerTaskExecutor().ifPresent(protocolHandler::setExecutor);
+    }
+
+    @Bean(name = {
+        TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+        AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME
+    })
+    public AsyncTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return newVirtualThreadPerTaskExecutor()
+            .<AsyncTaskExecutor>map(TaskExecutorAdapter::new)
+            .orElseGet(builder::build);
+    }
+
+    private static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+
+            log.info("Virtual threads enabled");
+            return Optional.of(executor);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not available on Java {}, using platform threads",
+                System.getProperty("java.version"));
+            return Optional.empty();
+        }
+    }
+}
@@ -6,4 +6,7 @@ import lombok.experimental.UtilityClass;
 public class AppErrorMessage {
     public static final String PAGE_IS_NOT_POSITIVE = "Текущая страница не может иметь отрицательное значение";
     public static final String SIZE_IS_NOT_POSITIVE = "Количество элементов должно быть больше нуля";
+    public static final String EXPORT_FORMAT = "Формат выгрузки должен быть NDJSON или CSV";
+    public static final String BATCH_SIZE = "Количество элементов пакета должно быть от 1 до 100";
+    public static final String AVAILABILITY_IDS_SIZE = "Количество вещей должно быть от 1 до 100";
 }
@@ -10,13 +10,19 @@ import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 
 import javax.validation.ConstraintViolationException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
+/**
+ * Ошибки клиента (400) пишутся в журнал только на уровне DEBUG, чтобы некорректные запросы
+ * под нагрузкой не заполняли очередь асинхронного журнала
+ */
 @Slf4j
 @RestControllerAdvice
 public class ErrorHandler {
@@ -44,7 +50,7 @@ public class ErrorHandler {
             message = e.getMessage();
         }
 
-        log.error(message);
+        log.debug("Bad request: {}", message);
 
         return new ErrorResponse(message);
     }
@@ -54,7 +60,7 @@ public class ErrorHandler {
     public ErrorResponse handleBadRequest(final MethodArgumentNotValidException e) {
         String message = e.getBindingResult().getAllErrors().get(0).getDefaultMessage();
 
-        log.error(message);
+        log.debug("Bad request: {}", message);
         return new ErrorResponse(message);
     }
 
@@ -64,7 +70,7 @@ public class ErrorHandler {
     public ErrorResponse handleBadRequest(final MissingRequestHeaderException e) {
         String message = String.format("Заголовок '%s' не передан'", e.getHeaderName());
 
-        log.error(message);
+        log.debug("Bad request: {}", message);
         return new ErrorResponse(message);
     }
 
@@ -73,7 +79,7 @@ public class ErrorHandler {
     public ErrorResponse handleBadRequest(final MissingPathVariableException e) {
         String message = String.format("Параметр: '%s' не передан", e.getVariableName());
 
-        log.error(message);
+        log.debug("Bad request: {}", message);
         return new ErrorResponse(message);
     }
 
@@ -86,18 +92,24 @@ public class ErrorHandler {
 
         String message = String.join(", ", messages);
 
-        log.error(message);
+        log.debug("Bad request: {}", message);
         return new ErrorResponse(message);
     }
 
+    /**
+     * Сервер не ответил: ошибка соединения или тайм-аут WebClient и RestTemplate
+     */
+    @ExceptionHandler({WebClientRequestException.class, ResourceAccessException.class})
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleServerUnavailable(final RuntimeException e) {
+        log.warn("Server unavailable: {}", e.getMessage());
+        return new ErrorResponse("Сервер временно недоступен");
+    }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(final Throwable e) {
-        String message = e.getMessage();
-
-        log.error(message);
-        log.error(String.valueOf(e.getClass()));
+        log.error("Unexpected error", e);
 
         return new ErrorResponse("Произошла непредвиденная ошибка");
     }
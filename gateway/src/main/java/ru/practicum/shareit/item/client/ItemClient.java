@@ -1,17 +1,18 @@
 package ru.practicum.shareit.item.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerExchangeFactory;
 import ru.practicum.shareit.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -19,16 +20,11 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-            builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+    public ItemClient(ServerExchangeFactory exchangeFactory) {
+        super(exchangeFactory.create(API_PREFIX));
     }
 
-    public ResponseEntity<Object> getAllItems(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getAllItems(long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
             "from", from,
             "size", size
@@ -38,23 +34,42 @@ public class ItemClient extends BaseClient {
     }
 
 
-    public ResponseEntity<Object> getItemById(long userId, long itemId) {
+    public Mono<ResponseEntity<Object>> getItemById(long userId, long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> saveItem(long userId, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+            "from", from,
+            "to", to
+        );
+
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(long userId, List<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+            "ids", itemIds.stream().map(String::valueOf).collect(Collectors.joining(",")),
+            "from", from,
+            "to", to
+        );
+
+        return get("/availability?ids={ids}&from={from}&to={to}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> saveItem(long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> updateItem(long userId, long itemId, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> updateItem(long userId, long itemId, ItemRequestDto itemRequestDto) {
         return patch("/" + itemId, userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> deleteItem(long userId, long itemId) {
+    public Mono<ResponseEntity<Object>> deleteItem(long userId, long itemId) {
         return delete("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> searchAvailableItemsByText(long userId, String text, int from, int size) {
+    public Mono<ResponseEntity<Object>> searchAvailableItemsByText(long userId, String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
             "from", from,
             "size", size,
@@ -64,7 +79,7 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, CommentRequestDto commentRequestDto) {
+    public Mono<ResponseEntity<Object>> addComment(long userId, long itemId, CommentRequestDto commentRequestDto) {
         return post("/" + itemId + "/comment", userId, commentRequestDto);
     }
 }
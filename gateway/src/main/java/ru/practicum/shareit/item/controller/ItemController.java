@@ -2,10 +2,12 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.constant.AppErrorMessage;
 import ru.practicum.shareit.constant.CustomHeaders;
@@ -15,6 +17,9 @@ import ru.practicum.shareit.item.dto.ItemRequestDto;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -25,7 +30,7 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllItems(
+    public Mono<ResponseEntity<Object>> getAllItems(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
         @RequestParam(defaultValue = "0")
         @PositiveOrZero(message = AppErrorMessage.PAGE_IS_NOT_POSITIVE)
@@ -34,50 +39,74 @@ public class ItemController {
         @Positive(message = AppErrorMessage.SIZE_IS_NOT_POSITIVE)
         Integer size
     ) {
-        log.info("Get all items with userId={}, from={}, size={}", userId, from, size);
+        log.debug("Get all items with userId={}, from={}, size={}", userId, from, size);
         return itemClient.getAllItems(userId, from, size);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(
+    public Mono<ResponseEntity<Object>> getItemById(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
         @PathVariable Long itemId
     ) {
-        log.info("Get item by id with userId={}, itemId={}", userId, itemId);
+        log.debug("Get item by id with userId={}, itemId={}", userId, itemId);
         return itemClient.getItemById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(
+        @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
+        @PathVariable Long itemId,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        log.debug("Get item availability with userId={}, itemId={}, from={}, to={}", userId, itemId, from, to);
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
+
+    @GetMapping("/availability")
+    public Mono<ResponseEntity<Object>> getAvailability(
+        @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
+        @RequestParam
+        @Size(min = 1, max = 100, message = AppErrorMessage.AVAILABILITY_IDS_SIZE)
+        List<Long> ids,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        log.debug("Get items availability with userId={}, ids={}, from={}, to={}", userId, ids, from, to);
+        return itemClient.getAvailability(userId, ids, from, to);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> saveItem(
+    public Mono<ResponseEntity<Object>> saveItem(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
         @Validated(ItemRequestDto.New.class) @RequestBody ItemRequestDto itemRequestDto
     ) {
-        log.info("Save item with userId={}, item={}", userId, itemRequestDto);
+        log.debug("Save item with userId={}, item={}", userId, itemRequestDto);
         return itemClient.saveItem(userId, itemRequestDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(
+    public Mono<ResponseEntity<Object>> updateItem(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
         @PathVariable Long itemId,
         @Validated(ItemRequestDto.Update.class) @RequestBody ItemRequestDto itemRequestDto
     ) {
-        log.info("Update item with userId={}, itemId={}, item={}", userId, itemId, itemRequestDto);
+        log.debug("Update item with userId={}, itemId={}, item={}", userId, itemId, itemRequestDto);
         return itemClient.updateItem(userId, itemId, itemRequestDto);
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> deleteItem(
+    public Mono<ResponseEntity<Object>> deleteItem(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
         @PathVariable Long itemId
     ) {
-        log.info("Delete item with userId={}, itemId={}", userId, itemId);
+        log.debug("Delete item with userId={}, itemId={}", userId, itemId);
         return itemClient.deleteItem(userId, itemId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchAvailableItemsByText(
+    public Mono<ResponseEntity<Object>> searchAvailableItemsByText(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
         @RequestParam String text,
         @RequestParam(defaultValue = "0")
@@ -87,17 +116,17 @@ public class ItemController {
         @Positive(message = AppErrorMessage.SIZE_IS_NOT_POSITIVE)
         Integer size
     ) {
-        log.info("Search available items item with userId={}, text={}, from={}, size={}", userId, text, from, size);
+        log.debug("Search available items item with userId={}, text={}, from={}, size={}", userId, text, from, size);
         return itemClient.searchAvailableItemsByText(userId, text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(
+    public Mono<ResponseEntity<Object>> addComment(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
         @PathVariable long itemId,
         @Valid @RequestBody CommentRequestDto commentRequestDto
     ) {
-        log.info("Add comment with userId={}, itemId={}, comment={}", userId, itemId, commentRequestDto);
+        log.debug("Add comment with userId={}, itemId={}, comment={}", userId, itemId, commentRequestDto);
         return itemClient.addComment(userId, itemId, commentRequestDto);
     }
 }
@@ -1,13 +1,11 @@
 package ru.practicum.shareit.request.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerExchangeFactory;
 import ru.practicum.shareit.request.dto.ItemRequestRequestDto;
 
 import java.util.Map;
@@ -17,25 +15,20 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-            builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+    public ItemRequestClient(ServerExchangeFactory exchangeFactory) {
+        super(exchangeFactory.create(API_PREFIX));
     }
 
-    public ResponseEntity<Object> getAllOwnRequests(long userId) {
+    public Mono<ResponseEntity<Object>> getAllOwnRequests(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> createNewRequest(long userId, ItemRequestRequestDto itemRequestRequestDto) {
+    public Mono<ResponseEntity<Object>> createNewRequest(long userId, ItemRequestRequestDto itemRequestRequestDto) {
         return post("", userId, itemRequestRequestDto);
     }
 
 
-    public ResponseEntity<Object> getAllRequests(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getAllRequests(long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
             "from", from,
             "size", size
@@ -45,7 +38,7 @@ public class ItemRequestClient extends BaseClient {
     }
 
 
-    public ResponseEntity<Object> getRequestById(long userId, long requestId) {
+    public Mono<ResponseEntity<Object>> getRequestById(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
 }
@@ -6,6 +6,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.constant.AppErrorMessage;
 import ru.practicum.shareit.constant.CustomHeaders;
 import ru.practicum.shareit.request.client.ItemRequestClient;
@@ -24,25 +25,25 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllOwnRequests(
+    public Mono<ResponseEntity<Object>> getAllOwnRequests(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId
     ) {
-        log.info("Get all own requests with userId={}", userId);
+        log.debug("Get all own requests with userId={}", userId);
         return itemRequestClient.getAllOwnRequests(userId);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createNewRequest(
+    public Mono<ResponseEntity<Object>> createNewRequest(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
         @Valid @RequestBody ItemRequestRequestDto itemRequestRequestDto
     ) {
-        log.info("Create request with userId={}, request={}", userId, itemRequestRequestDto);
+        log.debug("Create request with userId={}, request={}", userId, itemRequestRequestDto);
         return itemRequestClient.createNewRequest(userId, itemRequestRequestDto);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(
+    public Mono<ResponseEntity<Object>> getAllRequests(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
         @RequestParam(defaultValue = "0")
         @PositiveOrZero(message = AppErrorMessage.PAGE_IS_NOT_POSITIVE)
@@ -51,16 +52,16 @@ public class ItemRequestController {
         @Positive(message = AppErrorMessage.SIZE_IS_NOT_POSITIVE)
         Integer size
     ) {
-        log.info("Get all requests with userId={}, from={}, size={}", userId, from, size);
+        log.debug("Get all requests with userId={}, from={}, size={}", userId, from, size);
         return itemRequestClient.getAllRequests(userId, from, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(
+    public Mono<ResponseEntity<Object>> getRequestById(
         @PathVariable long requestId,
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId
     ) {
-        log.info("Get request by id with userId={}, requestId={}", userId, requestId);
+        log.debug("Get request by id with userId={}, requestId={}", userId, requestId);
         return itemRequestClient.getRequestById(userId, requestId);
     }
 }
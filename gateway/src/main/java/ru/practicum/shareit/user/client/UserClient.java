@@ -1,13 +1,11 @@
 package ru.practicum.shareit.user.client;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerExchangeFactory;
 import ru.practicum.shareit.user.dto.UserDTO;
 
 @Service
@@ -15,32 +13,27 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-            builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+    public UserClient(ServerExchangeFactory exchangeFactory) {
+        super(exchangeFactory.create(API_PREFIX));
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> getUserById(long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> saveUser(UserDTO userDTO) {
+    public Mono<ResponseEntity<Object>> saveUser(UserDTO userDTO) {
         return post("", userDTO);
     }
 
-    public ResponseEntity<Object> updateUser(long userId, UserDTO userDTO) {
+    public Mono<ResponseEntity<Object>> updateUser(long userId, UserDTO userDTO) {
         return patch("/" + userId, userDTO);
     }
 
-    public ResponseEntity<Object> deleteUser(long userId) {
+    public Mono<ResponseEntity<Object>> deleteUser(long userId) {
         return delete("/" + userId);
     }
 }
@@ -0,0 +1,389 @@
+package ru.practicum.shareit.loadtest;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+/**
+ * Заполнение таблиц schema.sql синтетическими данными пакетными вставками JDBC.
+ * Схема пересоздается скриптами из --schema, индексы строятся после загрузки, последовательности
+ * сдвигаются за максимальный идентификатор, чтобы сервер мог создавать новые записи.
+ * <p>
+ * Владельцы вещей, арендаторы, авторы запросов и популярность вещей распределены по Ципфу
+ * с показателем --skew. Бронирования одной вещи в статусах WAITING и APPROVED не пересекаются,
+ * bookings.owner_id совпадает с владельцем вещи.
+ * <pre>
+ * java -cp "load-test/target/classes:load-test/target/lib/*" ru.practicum.shareit.loadtest.DataGenerator \
+ *     --url=jdbc:h2:file:./load-test/target/db/shareit --user=test --password=test \
+ *     --users=100000 --items=300000 --bookings=2000000
+ * </pre>
+ */
+public class DataGenerator {
+    private static final String[] TABLES = {"users", "requests", "items", "bookings", "comments"};
+    private static final int SAMPLE_SIZE = 10_000;
+    private static final int COMMIT_EVERY = 50;
+    private static final Pattern CREATE_INDEX = Pattern.compile("^\\s*create\\s+index", Pattern.CASE_INSENSITIVE);
+
+    private final Options options;
+    private final Random random;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+    private final Dataset dataset = new Dataset();
+    private final int batchSize;
+
+    private Zipf owners;
+    private Zipf bookers;
+    private Zipf popularItems;
+
+    /**
+     * Владелец и доступность каждой вещи по идентификатору
+     */
+    private int[] itemOwners;
+    private boolean[] itemAvailable;
+
+    /**
+     * Завершенные подтвержденные бронирования, по которым пишутся отзывы: вещь, арендатор, конец в минутах
+     */
+    private long[][] commentablePool;
+
+    public DataGenerator(Options options) {
+        this.options = options;
+        this.random = new Random(options.getInt("seed", 42));
+        this.batchSize = options.getInt("batch-size", 1000);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        DataGenerator generator = new DataGenerator(options);
+
+        try (Connection connection = DriverManager.getConnection(
+            options.get("url", "jdbc:h2:file:./load-test/target/db/shareit;CACHE_SIZE=131072"),
+            options.get("user", "test"),
+            options.get("password", "test")
+        )) {
+            generator.generate(connection);
+        }
+
+        generator.dataset.write(Paths.get(options.get("dataset", "load-test/target/dataset")));
+    }
+
+    public void generate(Connection connection) throws Exception {
+        dataset.users = options.getInt("users", 100_000);
+        dataset.requests = options.getInt("requests", 20_000);
+        dataset.items = options.getInt("items", 300_000);
+        dataset.bookings = options.getInt("bookings", 2_000_000);
+        dataset.comments = options.getInt("comments", 200_000);
+        dataset.skew = options.getDouble("skew", 0.8);
+
+        owners = new Zipf(dataset.users, dataset.skew, Dataset.OWNER_STRIDE);
+        bookers = new Zipf(dataset.users, dataset.skew, Dataset.BOOKER_STRIDE);
+        popularItems = new Zipf(dataset.items, dataset.skew, Dataset.ITEM_STRIDE);
+
+        List<String> indexes = new ArrayList<>();
+        for (String script : options.get("schema", "server/src/main/resources/schema.sql").split(",")) {
+            timed("schema " + script, 0, () -> indexes.addAll(executeScript(connection, Paths.get(script))));
+        }
+
+        connection.setAutoCommit(false);
+        timed("users", dataset.users, () -> insertUsers(connection));
+        timed("requests", dataset.requests, () -> insertRequests(connection));
+        timed("items", dataset.items, () -> insertItems(connection));
+        timed("bookings", dataset.bookings, () -> insertBookings(connection));
+        timed("comments", dataset.comments, () -> insertComments(connection));
+
+        connection.setAutoCommit(true);
+        timed("indexes", 0, () -> execute(connection, indexes));
+        timed("sequences and statistics", 0, () -> finish(connection));
+    }
+
+    private void insertUsers(Connection connection) throws SQLException {
+        try (Batch batch = new Batch(connection, "insert into users (id, name, email) values (?, ?, ?)")) {
+            for (long id = 1; id <= dataset.users; id++) {
+                batch.statement.setLong(1, id);
+                batch.statement.setString(2, "Пользователь " + id);
+                batch.statement.setString(3, "user" + id + "@yandex.ru");
+                batch.add();
+            }
+        }
+    }
+
+    private void insertRequests(Connection connection) throws SQLException {
+        try (Batch batch = new Batch(connection,
+            "insert into requests (id, description, requestor_id, created) values (?, ?, ?, ?)")) {
+            for (long id = 1; id <= dataset.requests; id++) {
+                batch.statement.setLong(1, id);
+                batch.statement.setString(2, "Нужна " + pick(Dataset.ITEM_NAMES).toLowerCase(Locale.ROOT)
+                    + " на выходные, " + pick(Dataset.CONDITIONS));
+                batch.statement.setLong(3, bookers.nextId(random));
+                batch.statement.setTimestamp(4, Timestamp.valueOf(now.minusMinutes(random.nextInt(365 * 24 * 60))));
+                batch.add();
+            }
+        }
+    }
+
+    private void insertItems(Connection connection) throws SQLException {
+        itemOwners = new int[dataset.items + 1];
+        itemAvailable = new boolean[dataset.items + 1];
+
+        try (Batch batch = new Batch(connection,
+            "insert into items (id, name, description, is_available, owner_id, request_id) values (?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= dataset.items; id++) {
+                String name = pick(Dataset.ITEM_NAMES);
+
+                itemOwners[id] = (int) owners.nextId(random);
+                itemAvailable[id] = random.nextInt(10) != 0;
+
+                batch.statement.setLong(1, id);
+                batch.statement.setString(2, name + " " + id);
+                batch.statement.setString(3, name + ", " + pick(Dataset.CONDITIONS));
+                batch.statement.setBoolean(4, itemAvailable[id]);
+                batch.statement.setLong(5, itemOwners[id]);
+                if (dataset.requests > 0 && random.nextInt(10) == 0) {
+                    batch.statement.setLong(6, 1 + random.nextInt(dataset.requests));
+                } else {
+                    batch.statement.setNull(6, Types.BIGINT);
+                }
+                batch.add();
+            }
+        }
+
+        for (int rank = 1; rank <= Math.min(SAMPLE_SIZE, dataset.items); rank++) {
+            int itemId = (int) popularItems.idOf(rank);
+            dataset.popularItems.add(new long[]{itemId, itemOwners[itemId], itemAvailable[itemId] ? 1 : 0});
+        }
+    }
+
+    /**
+     * Бронирования каждой вещи идут друг за другом от года назад. Когда очередь популярной вещи
+     * уходит дальше чем на год вперед, следующие бронирования получают статус REJECTED
+     * в произвольное время: отклоненные могут пересекаться с другими
+     */
+    private void insertBookings(Connection connection) throws SQLException {
+        long horizonStart = toMinutes(now.minusYears(1));
+        long horizonEnd = toMinutes(now.plusYears(1));
+        long nowMinutes = toMinutes(now);
+        long[] nextFree = new long[dataset.items + 1];
+        int commentableSize = Math.max(SAMPLE_SIZE, Math.min(dataset.comments, 200_000));
+        long[][] finished = new long[commentableSize][];
+        long finishedSeen = 0;
+
+        try (Batch batch = new Batch(connection, "insert into bookings "
+            + "(id, start_date, end_date, item_id, booker_id, owner_id, status) values (?, ?, ?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= dataset.bookings; id++) {
+                int itemId = (int) popularItems.nextId(random);
+                long ownerId = itemOwners[itemId];
+                long bookerId = bookers.nextId(random);
+                while (bookerId == ownerId) {
+                    bookerId = 1 + random.nextInt(dataset.users);
+                }
+
+                if (nextFree[itemId] == 0) {
+                    nextFree[itemId] = horizonStart + random.nextInt(30 * 24 * 60);
+                }
+
+                long start = nextFree[itemId] + (long) (-Math.log(1 - random.nextDouble()) * 3 * 24 * 60);
+                long end = start + 60 + random.nextInt(7 * 24 * 60);
+                String status;
+
+                if (start > horizonEnd) {
+                    start = horizonStart + (long) (random.nextDouble() * (horizonEnd - horizonStart));
+                    end = start + 60 + random.nextInt(3 * 24 * 60);
+                    status = "REJECTED";
+                } else {
+                    nextFree[itemId] = end;
+                    status = status(start, end, nowMinutes);
+                }
+
+                batch.statement.setLong(1, id);
+                batch.statement.setTimestamp(2, Timestamp.valueOf(fromMinutes(start)));
+                batch.statement.setTimestamp(3, Timestamp.valueOf(fromMinutes(end)));
+                batch.statement.setLong(4, itemId);
+                batch.statement.setLong(5, bookerId);
+                batch.statement.setLong(6, ownerId);
+                batch.statement.setString(7, status);
+                batch.add();
+
+                if (id <= SAMPLE_SIZE) {
+                    dataset.bookingSamples.add(new long[]{id, bookerId, ownerId});
+                } else if (random.nextInt((int) id) < SAMPLE_SIZE) {
+                    dataset.bookingSamples.set(random.nextInt(SAMPLE_SIZE), new long[]{id, bookerId, ownerId});
+                }
+
+                if ("APPROVED".equals(status) && end < nowMinutes) {
+                    long[] sample = {itemId, bookerId, end};
+                    finishedSeen++;
+                    if (finishedSeen <= commentableSize) {
+                        finished[(int) finishedSeen - 1] = sample;
+                    } else if (random.nextDouble() * finishedSeen < commentableSize) {
+                        finished[random.nextInt(commentableSize)] = sample;
+                    }
+                }
+            }
+        }
+
+        int available = (int) Math.min(finishedSeen, commentableSize);
+        commentablePool = new long[available][];
+        System.arraycopy(finished, 0, commentablePool, 0, available);
+
+        for (int i = 0; i < Math.min(SAMPLE_SIZE, available); i++) {
+            dataset.commentable.add(new long[]{commentablePool[i][0], commentablePool[i][1]});
+        }
+    }
+
+    private String status(long start, long end, long nowMinutes) {
+        int dice = random.nextInt(10);
+
+        if (end < nowMinutes) {
+            return dice < 8 ? "APPROVED" : dice < 9 ? "REJECTED" : "CANCELED";
+        }
+        if (start <= nowMinutes) {
+            return "APPROVED";
+        }
+        return dice < 5 ? "APPROVED" : dice < 9 ? "WAITING" : "REJECTED";
+    }
+
+    private void insertComments(Connection connection) throws SQLException {
+        if (commentablePool.length == 0) {
+            dataset.comments = 0;
+            return;
+        }
+
+        try (Batch batch = new Batch(connection,
+            "insert into comments (id, text, item_id, author_id, created) values (?, ?, ?, ?, ?)")) {
+            for (long id = 1; id <= dataset.comments; id++) {
+                long[] booking = commentablePool[random.nextInt(commentablePool.length)];
+
+                batch.statement.setLong(1, id);
+                batch.statement.setString(2, "Брал на " + (1 + random.nextInt(7)) + " дн., " + pick(Dataset.CONDITIONS));
+                batch.statement.setLong(3, booking[0]);
+                batch.statement.setLong(4, booking[1]);
+                batch.statement.setTimestamp(5,
+                    Timestamp.valueOf(fromMinutes(Math.min(booking[2] + random.nextInt(7 * 24 * 60), toMinutes(now)))));
+                batch.add();
+            }
+        }
+    }
+
+    /**
+     * Hibernate выдает идентификаторы блоками по 50 от значения последовательности, поэтому
+     * последовательность начинается с запасом за максимальным идентификатором
+     */
+    private void finish(Connection connection) throws SQLException {
+        int[] sizes = {dataset.users, dataset.requests, dataset.items, dataset.bookings, dataset.comments};
+
+        try (Statement statement = connection.createStatement()) {
+            for (int i = 0; i < TABLES.length; i++) {
+                statement.execute("alter sequence " + TABLES[i] + "_seq restart with " + (sizes[i] + 100));
+            }
+            statement.execute("analyze");
+        }
+    }
+
+    /**
+     * Выполнение скрипта схемы без создания индексов. Индексы возвращаются, чтобы построить их
+     * после загрузки: поддержка индексов при построчной вставке в разы медленнее
+     */
+    private static List<String> executeScript(Connection connection, Path script) throws Exception {
+        String sql = new String(Files.readAllBytes(script), StandardCharsets.UTF_8);
+        List<String> commands = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+
+        for (String command : sql.split(";")) {
+            if (CREATE_INDEX.matcher(command).find()) {
+                indexes.add(command);
+            } else if (!command.isBlank()) {
+                commands.add(command);
+            }
+        }
+
+        execute(connection, commands);
+        return indexes;
+    }
+
+    private static void execute(Connection connection, List<String> commands) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String command : commands) {
+                statement.execute(command);
+            }
+        }
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static long toMinutes(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime fromMinutes(long minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static void timed(String step, long rows, SqlAction action) throws Exception {
+        long started = System.nanoTime();
+        action.run();
+        Duration duration = Duration.ofNanos(System.nanoTime() - started);
+
+        if (rows > 0) {
+            System.out.printf(Locale.ROOT, "%-28s %,12d rows %8.1f s %,10.0f rows/s%n", step, rows,
+                duration.toMillis() / 1000.0, rows * 1e9 / Math.max(1, duration.toNanos()));
+        } else {
+            System.out.printf(Locale.ROOT, "%-28s %8.1f s%n", step, duration.toMillis() / 1000.0);
+        }
+    }
+
+    private interface SqlAction {
+        void run() throws Exception;
+    }
+
+    /**
+     * Подготовленная вставка, отправляемая пакетами по batchSize строк с фиксацией
+     * каждые {@link #COMMIT_EVERY} пакетов
+     */
+    private class Batch implements AutoCloseable {
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private int rows;
+
+        Batch(Connection connection, String sql) throws SQLException {
+            this.connection = connection;
+            this.statement = connection.prepareStatement(sql);
+        }
+
+        void add() throws SQLException {
+            statement.addBatch();
+
+            if (++rows % batchSize == 0) {
+                statement.executeBatch();
+
+                if (rows % (batchSize * COMMIT_EVERY) == 0) {
+                    connection.commit();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            statement.executeBatch();
+            connection.commit();
+            statement.close();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Описание сгенерированных данных, которое {@link DataGenerator} записывает для {@link ScenarioRunner}:
+ * размеры таблиц и параметры распределения в dataset.properties, выборки известных связей в samples.csv.
+ * Так сценарий отправляет корректные запросы, не обращаясь к базе
+ */
+public class Dataset {
+    public static final String[] ITEM_NAMES = {
+        "Дрель", "Перфоратор", "Шуруповерт", "Пила", "Лестница", "Палатка", "Велосипед", "Самокат", "Проектор",
+        "Гитара", "Байдарка", "Мангал", "Генератор", "Пылесос", "Кофемашина", "Фотоаппарат", "Рюкзак", "Коньки"
+    };
+    public static final String[] CONDITIONS = {
+        "в отличном состоянии", "почти новая вещь", "с полным комплектом", "есть следы использования",
+        "проверено перед выдачей", "подходит для начинающих", "профессиональная модель"
+    };
+
+    /**
+     * Шаги перестановки рангов Ципфа, см. {@link Zipf}
+     */
+    public static final long OWNER_STRIDE = 1_000_003;
+    public static final long BOOKER_STRIDE = 7_919_113;
+    public static final long ITEM_STRIDE = 4_256_249;
+
+    private static final String PROPERTIES_FILE = "dataset.properties";
+    private static final String SAMPLES_FILE = "samples.csv";
+
+    int users;
+    int requests;
+    int items;
+    int bookings;
+    int comments;
+    double skew;
+
+    /**
+     * Самые популярные вещи по рангу: идентификатор, владелец, доступность (1 или 0)
+     */
+    final List<long[]> popularItems = new ArrayList<>();
+
+    /**
+     * Бронирования: идентификатор, арендатор, владелец
+     */
+    final List<long[]> bookingSamples = new ArrayList<>();
+
+    /**
+     * Завершенные подтвержденные бронирования, после которых можно оставить отзыв: вещь, арендатор
+     */
+    final List<long[]> commentable = new ArrayList<>();
+
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+
+        Properties properties = new Properties();
+        properties.setProperty("users", String.valueOf(users));
+        properties.setProperty("requests", String.valueOf(requests));
+        properties.setProperty("items", String.valueOf(items));
+        properties.setProperty("bookings", String.valueOf(bookings));
+        properties.setProperty("comments", String.valueOf(comments));
+        properties.setProperty("skew", String.valueOf(skew));
+
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(PROPERTIES_FILE), StandardCharsets.UTF_8)) {
+            properties.store(writer, "ShareIt load-test dataset");
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve(SAMPLES_FILE), StandardCharsets.UTF_8)) {
+            writeSamples(writer, "item", popularItems);
+            writeSamples(writer, "booking", bookingSamples);
+            writeSamples(writer, "commentable", commentable);
+        }
+    }
+
+    public static Dataset read(Path directory) throws IOException {
+        Dataset dataset = new Dataset();
+        Properties properties = new Properties();
+
+        try (Reader reader = Files.newBufferedReader(directory.resolve(PROPERTIES_FILE), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        dataset.users = Integer.parseInt(properties.getProperty("users"));
+        dataset.requests = Integer.parseInt(properties.getProperty("requests"));
+        dataset.items = Integer.parseInt(properties.getProperty("items"));
+        dataset.bookings = Integer.parseInt(properties.getProperty("bookings"));
+        dataset.comments = Integer.parseInt(properties.getProperty("comments"));
+        dataset.skew = Double.parseDouble(properties.getProperty("skew"));
+
+        try (BufferedReader reader = Files.newBufferedReader(directory.resolve(SAMPLES_FILE), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                long[] values = new long[fields.length - 1];
+
+                for (int i = 1; i < fields.length; i++) {
+                    values[i - 1] = Long.parseLong(fields[i]);
+                }
+
+                switch (fields[0]) {
+                    case "item":
+                        dataset.popularItems.add(values);
+                        break;
+                    case "booking":
+                        dataset.bookingSamples.add(values);
+                        break;
+                    case "commentable":
+                        dataset.commentable.add(values);
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown sample type: " + fields[0]);
+                }
+            }
+        }
+
+        return dataset;
+    }
+
+    private static void writeSamples(BufferedWriter writer, String type, List<long[]> samples) throws IOException {
+        for (long[] sample : samples) {
+            writer.write(type);
+            for (long value : sample) {
+                writer.write(',');
+                writer.write(Long.toString(value));
+            }
+            writer.newLine();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Потокобезопасная гистограмма задержек в микросекундах с относительной погрешностью до 1/64.
+ * Значения до 128 мкс хранятся точно, дальше каждая степень двойки делится на 64 интервала
+ */
+public class LatencyHistogram {
+    private static final int EXACT = 128;
+    private static final int SUB_BUCKETS = 64;
+    private static final int MAX_SHIFT = 57;
+
+    private final AtomicLongArray counts = new AtomicLongArray(EXACT + MAX_SHIFT * SUB_BUCKETS);
+
+    public void record(long micros) {
+        counts.incrementAndGet(index(Math.max(0, micros)));
+    }
+
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Верхняя граница интервала, в который попадает заданный перцентиль, в микросекундах
+     */
+    public long percentile(double percentile) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(counts.length() - 1);
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.addAndGet(i, other.counts.get(i));
+        }
+    }
+
+    private static int index(long value) {
+        if (value < EXACT) {
+            return (int) value;
+        }
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - 6;
+        return EXACT + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    private static long upperBound(int index) {
+        if (index < EXACT) {
+            return index;
+        }
+
+        int shift = (index - EXACT) / SUB_BUCKETS + 1;
+        long top = (index - EXACT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
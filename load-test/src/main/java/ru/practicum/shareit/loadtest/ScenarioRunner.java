@@ -0,0 +1,407 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Смешанная нагрузка на gateway (или напрямую на сервер) по данным {@link DataGenerator}.
+ * Набор запросов повторяет коллекцию postman/sprint.json, но с преобладанием чтения, как у живого
+ * сервиса. Каждый из --clients клиентов отправляет следующий запрос после ответа на предыдущий.
+ * Первые --warmup секунд не учитываются, затем --duration секунд собирается статистика.
+ * <pre>
+ * java -cp load-test/target/classes ru.practicum.shareit.loadtest.ScenarioRunner \
+ *     --target=http://localhost:8080 --clients=64 --warmup=30 --duration=120
+ * </pre>
+ * Доли запросов меняются параметром --mix, например --mix=GET_ITEM=40,CREATE_BOOKING=0
+ */
+public class ScenarioRunner {
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Pattern OWNER_ID = Pattern.compile("\"owner\"\\s*:\\s*\\{\\s*\"id\"\\s*:\\s*(\\d+)");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final String[] STATES = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"};
+    private static final int PAGE_SIZE = 20;
+    private static final int OWN_ITEMS_LIMIT = 20;
+
+    enum Operation {
+        GET_ITEM("GET /items/{id}", 20),
+        OWNER_ITEMS("GET /items", 8),
+        SEARCH_ITEMS("GET /items/search", 10),
+        ITEM_AVAILABILITY("GET /items/{id}/availability", 3),
+        BOOKER_BOOKINGS("GET /bookings", 12),
+        OWNER_BOOKINGS("GET /bookings/owner", 10),
+        GET_BOOKING("GET /bookings/{id}", 5),
+        GET_USER("GET /users/{id}", 4),
+        OWN_REQUESTS("GET /requests", 3),
+        ALL_REQUESTS("GET /requests/all", 3),
+        GET_REQUEST("GET /requests/{id}", 2),
+        CREATE_BOOKING("POST /bookings", 8),
+        APPROVE_BOOKING("PATCH /bookings/{id}", 4),
+        CREATE_ITEM("POST /items", 2),
+        UPDATE_ITEM("PATCH /items/{id}", 2),
+        ADD_COMMENT("POST /items/{id}/comment", 2),
+        CREATE_REQUEST("POST /requests", 2);
+
+        private final String endpoint;
+        private final int defaultWeight;
+
+        Operation(String endpoint, int defaultWeight) {
+            this.endpoint = endpoint;
+            this.defaultWeight = defaultWeight;
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final String baseUrl;
+    private final Dataset dataset;
+    private final Operation[] operations = Operation.values();
+    private final int[] cumulativeWeights = new int[operations.length];
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final Zipf owners;
+    private final Zipf bookers;
+    private final Zipf items;
+    private final Zipf popularItems;
+
+    private volatile long measureFrom;
+    private volatile long deadline;
+
+    public ScenarioRunner(String baseUrl, Dataset dataset, String mix) {
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+        this.owners = new Zipf(dataset.users, dataset.skew, Dataset.OWNER_STRIDE);
+        this.bookers = new Zipf(dataset.users, dataset.skew, Dataset.BOOKER_STRIDE);
+        this.items = new Zipf(dataset.items, dataset.skew, Dataset.ITEM_STRIDE);
+        this.popularItems = new Zipf(dataset.popularItems.size(), dataset.skew, 1);
+
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : operations) {
+            weights.put(operation, operation.defaultWeight);
+            stats.put(operation, new EndpointStats());
+        }
+        if (!mix.isBlank()) {
+            for (String entry : mix.split(",")) {
+                String[] parts = entry.split("=");
+                weights.put(Operation.valueOf(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+            }
+        }
+
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        Dataset dataset = Dataset.read(Paths.get(options.get("dataset", "load-test/target/dataset")));
+        ScenarioRunner runner = new ScenarioRunner(
+            options.get("target", "http://localhost:8080"), dataset, options.get("mix", "")
+        );
+
+        runner.run(options.getInt("clients", 64), Duration.ofSeconds(options.getInt("warmup", 30)),
+            Duration.ofSeconds(options.getInt("duration", 120)), options.getInt("seed", 7));
+        runner.report(options.getInt("duration", 120));
+    }
+
+    public void run(int clients, Duration warmup, Duration duration, long seed) throws InterruptedException {
+        long startedAt = System.nanoTime();
+        measureFrom = startedAt + warmup.toNanos();
+        deadline = measureFrom + duration.toNanos();
+
+        System.out.printf("%d clients against %s: %d s warmup, %d s measurement%n", clients, baseUrl,
+            warmup.getSeconds(), duration.getSeconds());
+
+        CountDownLatch finished = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            new VirtualUser(new Random(seed + i), finished).next();
+        }
+        finished.await();
+    }
+
+    public void report(long seconds) {
+        LatencyHistogram total = new LatencyHistogram();
+        long requests = 0;
+        long failures = 0;
+
+        System.out.printf("%n%-30s %9s %8s %9s %9s %9s %7s %7s %7s%n", "endpoint", "requests", "rps",
+            "p50, ms", "p99, ms", "p999, ms", "4xx %", "5xx %", "io %");
+
+        for (Operation operation : operations) {
+            EndpointStats endpoint = stats.get(operation);
+            long count = endpoint.requests();
+            if (count == 0) {
+                continue;
+            }
+
+            total.add(endpoint.latencies);
+            requests += count;
+            failures += endpoint.serverErrors.sum() + endpoint.ioErrors.sum();
+
+            System.out.printf(Locale.ROOT, "%-30s %9d %8.1f %9.2f %9.2f %9.2f %7.2f %7.2f %7.2f%n",
+                operation.endpoint, count, (double) count / seconds,
+                millis(endpoint.latencies.percentile(0.5)), millis(endpoint.latencies.percentile(0.99)),
+                millis(endpoint.latencies.percentile(0.999)), percent(endpoint.clientErrors.sum(), count),
+                percent(endpoint.serverErrors.sum(), count), percent(endpoint.ioErrors.sum(), count));
+        }
+
+        System.out.printf(Locale.ROOT, "%n%-30s %9d %8.1f %9.2f %9.2f %9.2f%n", "total", requests,
+            (double) requests / seconds, millis(total.percentile(0.5)), millis(total.percentile(0.99)),
+            millis(total.percentile(0.999)));
+        System.out.printf(Locale.ROOT, "5xx and I/O errors: %.3f %%%n", percent(failures, requests));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0 : part * 100.0 / total;
+    }
+
+    private static class EndpointStats {
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder ioErrors = new LongAdder();
+
+        long requests() {
+            return latencies.count() + ioErrors.sum();
+        }
+    }
+
+    /**
+     * Клиент с собственным состоянием: созданные им бронирования ждут подтверждения владельцем,
+     * созданные вещи затем редактируются. Следующий запрос отправляется только после ответа
+     * на предыдущий, поэтому состояние не требует синхронизации
+     */
+    private class VirtualUser {
+        private final Random random;
+        private final CountDownLatch finished;
+        private final Deque<long[]> waitingBookings = new ArrayDeque<>();
+        private final List<long[]> ownItems = new ArrayList<>();
+
+        VirtualUser(Random random, CountDownLatch finished) {
+            this.random = random;
+            this.finished = finished;
+        }
+
+        void next() {
+            if (System.nanoTime() >= deadline) {
+                finished.countDown();
+                return;
+            }
+
+            Operation operation = pickOperation();
+            HttpRequest request = build(operation);
+            long sentAt = System.nanoTime();
+
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+                long elapsed = System.nanoTime() - sentAt;
+
+                if (sentAt >= measureFrom) {
+                    record(operation, response, error, elapsed);
+                }
+                if (response != null && response.statusCode() < 300) {
+                    remember(operation, request, response.body());
+                }
+
+                next();
+            });
+        }
+
+        private Operation pickOperation() {
+            int dice = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            int index = 0;
+            while (cumulativeWeights[index] <= dice) {
+                index++;
+            }
+
+            Operation operation = operations[index];
+            if (operation == Operation.APPROVE_BOOKING && waitingBookings.isEmpty()) {
+                return Operation.CREATE_BOOKING;
+            }
+            if (operation == Operation.ADD_COMMENT && dataset.commentable.isEmpty()) {
+                return Operation.GET_ITEM;
+            }
+            return operation;
+        }
+
+        private HttpRequest build(Operation operation) {
+            switch (operation) {
+                case GET_ITEM:
+                    return get("/items/" + items.nextId(random), bookers.nextId(random));
+                case OWNER_ITEMS:
+                    return get("/items?from=0&size=" + PAGE_SIZE, owners.nextId(random));
+                case SEARCH_ITEMS:
+                    return get("/items/search?text=" + searchText() + "&from=0&size=" + PAGE_SIZE,
+                        bookers.nextId(random));
+                case ITEM_AVAILABILITY:
+                    LocalDateTime from = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+                    return get("/items/" + items.nextId(random) + "/availability?from=" + DATE_TIME.format(from)
+                        + "&to=" + DATE_TIME.format(from.plusDays(30)), bookers.nextId(random));
+                case BOOKER_BOOKINGS:
+                    return get("/bookings?state=" + state() + "&from=0&size=" + PAGE_SIZE, bookers.nextId(random));
+                case OWNER_BOOKINGS:
+                    return get("/bookings/owner?state=" + state() + "&from=0&size=" + PAGE_SIZE,
+                        owners.nextId(random));
+                case GET_BOOKING:
+                    long[] booking = sample(dataset.bookingSamples);
+                    return get("/bookings/" + booking[0], booking[1 + random.nextInt(2)]);
+                case GET_USER:
+                    return get("/users/" + bookers.nextId(random), null);
+                case OWN_REQUESTS:
+                    return get("/requests", bookers.nextId(random));
+                case ALL_REQUESTS:
+                    return get("/requests/all?from=0&size=" + PAGE_SIZE, bookers.nextId(random));
+                case GET_REQUEST:
+                    return get("/requests/" + (1 + random.nextInt(Math.max(1, dataset.requests))),
+                        bookers.nextId(random));
+                case CREATE_BOOKING:
+                    return createBooking();
+                case APPROVE_BOOKING:
+                    long[] waiting = waitingBookings.poll();
+                    return send("PATCH", "/bookings/" + waiting[0] + "?approved=" + (random.nextInt(5) != 0),
+                        waiting[1], "");
+                case CREATE_ITEM:
+                    String name = Dataset.ITEM_NAMES[random.nextInt(Dataset.ITEM_NAMES.length)];
+                    return send("POST", "/items", owners.nextId(random), String.format(
+                        "{\"name\":\"%s\",\"description\":\"%s, %s\",\"available\":true}", name, name, condition()));
+                case UPDATE_ITEM:
+                    long[] item = ownItems.isEmpty() ? popularItem() : ownItems.get(random.nextInt(ownItems.size()));
+                    return send("PATCH", "/items/" + item[0], item[1],
+                        String.format("{\"description\":\"%s\"}", condition()));
+                case ADD_COMMENT:
+                    long[] finishedBooking = sample(dataset.commentable);
+                    return send("POST", "/items/" + finishedBooking[0] + "/comment", finishedBooking[1],
+                        String.format("{\"text\":\"%s\"}", condition()));
+                case CREATE_REQUEST:
+                default:
+                    return send("POST", "/requests", bookers.nextId(random),
+                        String.format("{\"description\":\"Нужна вещь: %s\"}", condition()));
+            }
+        }
+
+        /**
+         * Бронирование популярной доступной вещи не владельцем на случайный срок в ближайший год.
+         * Пересечение с существующими бронированиями дает ожидаемый ответ 409
+         */
+        private HttpRequest createBooking() {
+            long[] item = popularItem();
+            for (int attempt = 0; attempt < 5 && item[2] == 0; attempt++) {
+                item = popularItem();
+            }
+
+            long bookerId = bookers.nextId(random);
+            if (bookerId == item[1]) {
+                bookerId = bookerId % dataset.users + 1;
+            }
+
+            LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)
+                .plusDays(1 + random.nextInt(365))
+                .plusMinutes(random.nextInt(24 * 60));
+            LocalDateTime end = start.plusHours(1 + random.nextInt(72));
+
+            return send("POST", "/bookings", bookerId, String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}",
+                item[0], DATE_TIME.format(start), DATE_TIME.format(end)));
+        }
+
+        private void remember(Operation operation, HttpRequest request, String body) {
+            Matcher id = ID.matcher(body);
+
+            if (operation == Operation.CREATE_BOOKING && id.find()) {
+                Matcher owner = OWNER_ID.matcher(body);
+                if (owner.find()) {
+                    waitingBookings.add(new long[]{Long.parseLong(id.group(1)), Long.parseLong(owner.group(1))});
+                }
+            } else if (operation == Operation.CREATE_ITEM && id.find() && ownItems.size() < OWN_ITEMS_LIMIT) {
+                long ownerId = Long.parseLong(request.headers().firstValue("X-Sharer-User-Id").orElse("0"));
+                ownItems.add(new long[]{Long.parseLong(id.group(1)), ownerId});
+            }
+        }
+
+        private void record(Operation operation, HttpResponse<String> response, Throwable error, long elapsed) {
+            EndpointStats endpoint = stats.get(operation);
+
+            if (error != null) {
+                endpoint.ioErrors.increment();
+                return;
+            }
+
+            endpoint.latencies.record(elapsed / 1000);
+            if (response.statusCode() >= 500) {
+                endpoint.serverErrors.increment();
+            } else if (response.statusCode() >= 400) {
+                endpoint.clientErrors.increment();
+            }
+        }
+
+        private long[] popularItem() {
+            return dataset.popularItems.get(popularItems.nextRank(random) - 1);
+        }
+
+        private long[] sample(List<long[]> samples) {
+            return samples.get(random.nextInt(samples.size()));
+        }
+
+        private String state() {
+            return STATES[random.nextInt(STATES.length)];
+        }
+
+        private String condition() {
+            return Dataset.CONDITIONS[random.nextInt(Dataset.CONDITIONS.length)];
+        }
+
+        /**
+         * Название вещи из словаря генератора
+         */
+        private String searchText() {
+            String name = Dataset.ITEM_NAMES[random.nextInt(Dataset.ITEM_NAMES.length)];
+            return URLEncoder.encode(name.toLowerCase(Locale.ROOT), StandardCharsets.UTF_8);
+        }
+
+        private HttpRequest get(String path, Long userId) {
+            return request(path, userId).GET().build();
+        }
+
+        private HttpRequest send(String method, String path, long userId, String json) {
+            return request(path, userId)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        }
+
+        private HttpRequest.Builder request(String path, Long userId) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+
+            if (userId != null) {
+                builder.header("X-Sharer-User-Id", String.valueOf(userId));
+            }
+            return builder;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package ru.practicum.shareit.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Максимальная устойчивая конкурентность GET /bookings при медленной базе.
+ * Для каждого уровня конкурентности N клиентов в замкнутом цикле запрашивают страницу
+ * бронирований, пока не истечет время уровня. Уровень устойчив, если нет ошибок и p99
+ * не превышает SLO.
+ * <p>
+ * Сервер запускается дважды с профилями ci,slow-db: на JDK 21 с
+ * --shareit.virtual-threads.enabled=false и с --shareit.virtual-threads.enabled=true, затем
+ * <pre>
+ * java -cp load-test/target/classes ru.practicum.shareit.loadtest.VirtualThreadsBenchmark \
+ *     http://localhost:9090 50,100,200,400,800 10 1000
+ * </pre>
+ * Аргументы: адрес сервера или gateway, уровни конкурентности, секунд на уровень, SLO p99 в мс.
+ * Сравнение режимов клиента gateway (blocking и reactive) тем же тестом описано в README
+ */
+public class VirtualThreadsBenchmark {
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final int BOOKINGS = 20;
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final String baseUrl;
+
+    public VirtualThreadsBenchmark(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:9090";
+        int[] levels = Arrays.stream((args.length > 1 ? args[1] : "50,100,200,400,800").split(","))
+            .mapToInt(Integer::parseInt)
+            .toArray();
+        Duration levelDuration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 10);
+        long sloMillis = args.length > 3 ? Long.parseLong(args[3]) : 1000;
+
+        VirtualThreadsBenchmark benchmark = new VirtualThreadsBenchmark(baseUrl);
+        long bookerId = benchmark.seed();
+
+        System.out.printf("%12s %10s %10s %10s %10s %8s%n", "concurrency", "rps", "p50, ms", "p99, ms", "max, ms",
+            "errors");
+
+        int sustainable = 0;
+        for (int concurrency : levels) {
+            LevelResult result = benchmark.runLevel(bookerId, concurrency, levelDuration);
+
+            System.out.printf(Locale.ROOT, "%12d %10.1f %10d %10d %10d %8d%n", concurrency, result.throughput,
+                result.percentile(0.5), result.percentile(0.99), result.percentile(1.0), result.errors);
+
+            if (result.errors == 0 && result.percentile(0.99) <= sloMillis) {
+                sustainable = concurrency;
+            }
+        }
+
+        System.out.printf("Max sustainable concurrency (p99 <= %d ms, no errors): %d%n", sloMillis, sustainable);
+    }
+
+    /**
+     * Владелец, вещь и бронирования для страницы GET /bookings
+     */
+    private long seed() throws Exception {
+        String suffix = Long.toString(System.nanoTime(), Character.MAX_RADIX);
+        long ownerId = post("/users", null, "{\"name\":\"owner\",\"email\":\"owner" + suffix + "@yandex.ru\"}");
+        long bookerId = post("/users", null, "{\"name\":\"booker\",\"email\":\"booker" + suffix + "@yandex.ru\"}");
+        long itemId = post("/items", ownerId, "{\"name\":\"item\",\"description\":\"benchmark\",\"available\":true}");
+
+        for (int i = 0; i < BOOKINGS; i++) {
+            post("/bookings", bookerId, String.format(
+                "{\"itemId\":%d,\"start\":\"2100-01-%02dT10:00:00\",\"end\":\"2100-01-%02dT12:00:00\"}",
+                itemId, i + 1, i + 1));
+        }
+
+        return bookerId;
+    }
+
+    private long post(String path, Long userId, String json) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json));
+
+        if (userId != null) {
+            request.header("X-Sharer-User-Id", String.valueOf(userId));
+        }
+
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = ID.matcher(response.body());
+
+        if (response.statusCode() >= 300 || !matcher.find()) {
+            throw new IllegalStateException("Seed request " + path + " failed: " + response.body());
+        }
+
+        return Long.parseLong(matcher.group(1));
+    }
+
+    /**
+     * Каждый клиент отправляет следующий запрос после ответа на предыдущий.
+     * Запросы асинхронные, поэтому число клиентов не ограничено потоками самого теста
+     */
+    private LevelResult runLevel(long bookerId, int concurrency, Duration duration) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/bookings?state=ALL&from=0&size=10"))
+            .header("X-Sharer-User-Id", String.valueOf(bookerId))
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch finished = new CountDownLatch(concurrency);
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + duration.toNanos();
+
+        for (int i = 0; i < concurrency; i++) {
+            sendLoop(request, deadline, latencies, errors, finished);
+        }
+
+        finished.await();
+
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        return new LevelResult(new ArrayList<>(latencies), errors.get(), latencies.size() / seconds);
+    }
+
+    private void sendLoop(
+        HttpRequest request, long deadline, ConcurrentLinkedQueue<Long> latencies, AtomicLong errors,
+        CountDownLatch finished
+    ) {
+        if (System.nanoTime() >= deadline) {
+            finished.countDown();
+            return;
+        }
+
+        long sentAt = System.nanoTime();
+
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            if (error != null || response.statusCode() != 200) {
+                errors.incrementAndGet();
+            } else {
+                latencies.add((System.nanoTime() - sentAt) / 1_000_000);
+            }
+
+            sendLoop(request, deadline, latencies, errors, finished);
+        });
+    }
+
+    private static class LevelResult {
+        private final List<Long> latencies;
+        private final long errors;
+        private final double throughput;
+
+        LevelResult(List<Long> latencies, long errors, double throughput) {
+            latencies.sort(null);
+            this.latencies = latencies;
+            this.errors = errors;
+            this.throughput = throughput;
+        }
+
+        long percentile(double percentile) {
+            if (latencies.isEmpty()) {
+                return 0;
+            }
+
+            int index = (int) Math.ceil(percentile * latencies.size()) - 1;
+            return latencies.get(Math.max(0, Math.min(index, latencies.size() - 1)));
+        }
+    }
+}
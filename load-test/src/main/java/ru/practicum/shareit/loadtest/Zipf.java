@@ -0,0 +1,57 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Выбор идентификатора из 1..n с распределением Ципфа: ранг k выбирается с вероятностью,
+ * пропорциональной 1 / k^skew. Ранги переставлены шагом, взаимно простым с n, поэтому
+ * самые активные пользователи и популярные вещи разбросаны по диапазону идентификаторов,
+ * а у владельцев и арендаторов с разным шагом разные лидеры
+ */
+public class Zipf {
+    private final double[] cumulative;
+    private final long stride;
+
+    public Zipf(int n, double skew, long stride) {
+        this.cumulative = new double[n];
+        this.stride = coprimeStride(n, stride);
+
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1 / Math.pow(rank, skew);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    /**
+     * Ранг от 1 (самый частый) до n
+     */
+    public int nextRank(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return (index >= 0 ? index : -index - 1) + 1;
+    }
+
+    public long nextId(Random random) {
+        return idOf(nextRank(random));
+    }
+
+    public long idOf(int rank) {
+        return (rank - 1) * stride % cumulative.length + 1;
+    }
+
+    private static long coprimeStride(int n, long stride) {
+        long candidate = stride;
+        while (gcd(candidate, n) != 1) {
+            candidate++;
+        }
+        return candidate % n == 0 ? 1 : candidate;
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -2,16 +2,26 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.constants.BookingState;
+import ru.practicum.shareit.booking.constants.ExportFormat;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.common.AppPageRequest;
 import ru.practicum.shareit.constant.CustomHeaders;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -38,31 +48,114 @@ public class BookingController {
         return bookingService.updateBooking(bookingId, approved, userId);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(
+        @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
+        @RequestBody List<BookingRequestDto> bookingRequestDtos
+    ) {
+        return bookingService.createNewBookings(bookingRequestDtos, userId);
+    }
+
+    @PatchMapping("/batch")
+    public List<BookingBatchResultDto> updateBookings(
+        @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
+        @RequestParam boolean approved,
+        @RequestBody List<Long> bookingIds
+    ) {
+        return bookingService.updateBookings(bookingIds, approved, userId);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+        @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
+        @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+        HttpServletRequest request
+    ) {
+        return export(userId, false, format, request);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(
+        @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
+        @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+        HttpServletRequest request
+    ) {
+        return export(userId, true, format, request);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingResponseDto getBookingById(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
-        @PathVariable Long bookingId
+        @PathVariable Long bookingId,
+        WebRequest request
     ) {
+        Optional<String> eTag = bookingService.getBookingETag(bookingId, userId);
+
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return null;
+        }
+
         return bookingService.getBookingById(bookingId, userId);
     }
 
     @GetMapping
-    public List<BookingResponseDto> getBookings(
+    public ResponseEntity<List<BookingResponseDto>> getBookings(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
         @RequestParam BookingState state,
         @RequestParam Integer from,
-        @RequestParam Integer size
+        @RequestParam Integer size,
+        @RequestParam(required = false) String after
     ) {
-        return bookingService.getBookings(state, userId, new AppPageRequest(from, size));
+        List<BookingResponseDto> bookings = Objects.isNull(after)
+            ? bookingService.getBookings(state, userId, new AppPageRequest(from, size))
+            : bookingService.getBookings(state, userId, BookingCursor.decode(after), size);
+
+        return withNextCursor(bookings, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getOwnerBookings(
+    public ResponseEntity<List<BookingResponseDto>> getOwnerBookings(
         @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
         @RequestParam BookingState state,
         @RequestParam Integer from,
-        @RequestParam Integer size
+        @RequestParam Integer size,
+        @RequestParam(required = false) String after
+    ) {
+        List<BookingResponseDto> bookings = Objects.isNull(after)
+            ? bookingService.getOwnerBookings(state, userId, new AppPageRequest(from, size))
+            : bookingService.getOwnerBookings(state, userId, BookingCursor.decode(after), size);
+
+        return withNextCursor(bookings, size);
+    }
+
+    /**
+     * Выгрузка пишется в ответ по мере чтения из базы. Фильтр ETag для нее отключается,
+     * иначе он накопил бы весь ответ в памяти, чтобы посчитать хэш
+     */
+    private ResponseEntity<StreamingResponseBody> export(
+        long userId, boolean owner, ExportFormat format, HttpServletRequest request
     ) {
-        return bookingService.getOwnerBookings(state, userId, new AppPageRequest(from, size));
+        StreamingResponseBody body = bookingService.exportBookings(userId, owner, format);
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+
+        return ResponseEntity.ok().contentType(format.getMediaType()).body(body);
+    }
+
+    /**
+     * Добавляет к ответу заголовок с позицией для запроса следующей страницы,
+     * если текущая страница заполнена полностью
+     *
+     * @param bookings список бронирований текущей страницы
+     * @param size     запрошенный размер страницы
+     */
+    private ResponseEntity<List<BookingResponseDto>> withNextCursor(List<BookingResponseDto> bookings, int size) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok();
+
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            BookingCursor next = BookingCursor.of(bookings.get(bookings.size() - 1));
+            responseBuilder.header(CustomHeaders.NEXT_CURSOR_HEADER, next.encode());
+        }
+
+        return responseBuilder.body(bookings);
     }
 }
@@ -10,4 +10,6 @@ public class BookingErrorMessage {
         "Невозможно изменить статус бронирования с id = %d. Статус уже ранее был изменен";
     public static final String NOT_AUTHORIZED = "Изменение статуса вещи может быть выполнено только владельцем";
     public static final String ITEM_IS_NOT_AVAILABLE = "Вещь c id = %d не доступна";
+    public static final String ITEM_ALREADY_BOOKED = "Вещь c id = %d уже забронирована на это время";
+    public static final String INVALID_CURSOR = "Некорректное значение параметра after: '%s'";
 }
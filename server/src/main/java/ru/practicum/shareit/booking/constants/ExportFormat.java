@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.constants;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Форматы выгрузки бронирований
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    /**
+     * JSON объект бронирования на каждой строке
+     */
+    NDJSON(MediaType.parseMediaType("application/x-ndjson")),
+    /**
+     * CSV с заголовком
+     */
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8));
+
+    private final MediaType mediaType;
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат обработки одного элемента пакетного запроса.
+ * status - HTTP статус, который вернул бы одиночный запрос, booking заполнен только при успехе
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingBatchResultDto {
+    private Integer status;
+    private BookingResponseDto booking;
+    private String error;
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.constants.BookingErrorMessage;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция в выдаче бронирований для постраничной навигации по ключу (start, id).
+ * Передается клиенту в виде непрозрачной строки
+ */
+@Getter
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class BookingCursor {
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Дата начала последнего бронирования на странице
+     */
+    private final LocalDateTime start;
+
+    /**
+     * Идентификатор последнего бронирования на странице
+     */
+    private final Long id;
+
+    public static BookingCursor of(BookingResponseDto booking) {
+        return new BookingCursor(booking.getStart(), booking.getId());
+    }
+
+    public static BookingCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = value.indexOf(SEPARATOR);
+
+            return new BookingCursor(
+                LocalDateTime.parse(value.substring(0, separatorIndex)),
+                Long.parseLong(value.substring(separatorIndex + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException(String.format(BookingErrorMessage.INVALID_CURSOR, token));
+        }
+    }
+
+    public String encode() {
+        String value = start + SEPARATOR + id;
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.constants.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование вещи, выбираемое запросом сразу в DTO без загрузки сущностей
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemBookingDto {
+    private Long itemId;
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Long bookerId;
+    private BookingStatus status;
+}
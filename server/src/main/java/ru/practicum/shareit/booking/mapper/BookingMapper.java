@@ -4,6 +4,7 @@ import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingItemResponseDTO;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.user.dto.UserDTO;
@@ -32,6 +33,16 @@ public class BookingMapper {
             .build();
     }
 
+    public static BookingItemResponseDTO toItemResponseDto(ItemBookingDto booking) {
+        return BookingItemResponseDTO.builder()
+            .id(booking.getId())
+            .status(booking.getStatus())
+            .start(booking.getStart())
+            .end(booking.getEnd())
+            .bookerId(booking.getBookerId())
+            .build();
+    }
+
     public static Booking toBooking(BookingRequestDto bookingRequestDto) {
         return Booking.builder()
             .start(bookingRequestDto.getStart())
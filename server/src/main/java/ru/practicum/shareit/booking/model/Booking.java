@@ -17,12 +17,26 @@ import java.time.LocalDateTime;
 @Table(name = "bookings")
 @NoArgsConstructor
 @ToString
+@NamedEntityGraph(
+    name = Booking.WITH_ITEM_AND_BOOKER,
+    attributeNodes = {
+        @NamedAttributeNode("booker"),
+        @NamedAttributeNode(value = "item", subgraph = "item")
+    },
+    subgraphs = @NamedSubgraph(name = "item", attributeNodes = @NamedAttributeNode("owner"))
+)
 public class Booking {
+    /**
+     * Граф загрузки бронирования вместе с автором, вещью и ее владельцем
+     */
+    public static final String WITH_ITEM_AND_BOOKER = "Booking.withItemAndBooker";
+
     /**
      * Уникальный идентификатор бронирования
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -51,9 +65,29 @@ public class Booking {
     @JoinColumn(name = "booker_id")
     private User booker;
 
+    /**
+     * Уникальный идентификатор владельца вещи. Копия items.owner_id, чтобы запросы владельца
+     * фильтровали и сортировали бронирования по индексу без соединения с items.
+     * Заполняется при сохранении нового бронирования
+     */
+    @Column(name = "owner_id", nullable = false, updatable = false)
+    private Long ownerId;
+
     /**
      * {@link BookingStatus}
      */
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
-}
\ No newline at end of file
+
+    /**
+     * Версия записи для оптимистической блокировки и ETag, увеличивается при каждом изменении
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @PrePersist
+    private void fillOwnerId() {
+        ownerId = item.getOwner().getId();
+    }
+}
@@ -1,84 +1,246 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.booking.constants.BookingStatus;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.availability.BusyInterval;
+
+import javax.persistence.QueryHint;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @Query("select b from Booking b where b.item.id in ?1 and b.item.owner.id = ?2 and b.status != 'REJECTED'" +
-        " and b.start < ?3 order by b.start desc")
-    List<Booking> findByItemIdAndOwnerIdAndStartDateLessThenNowInOrderByIdDesc(
+    String EXPORT_FETCH_SIZE = "500";
+
+    /**
+     * Последнее начавшееся бронирование каждой из вещей владельца, по одной строке на вещь.
+     * Подзапрос связан с вещью, а не с бронированием, поэтому выполняется один раз на вещь,
+     * а не для каждого бронирования из ее истории
+     */
+    @Query("select new ru.practicum.shareit.booking.dto.ItemBookingDto(b.item.id, b.id, b.start, b.end," +
+        " b.booker.id, b.status)" +
+        " from Item i join Booking b on b.item = i" +
+        " where i.id in ?1 and i.owner.id = ?2 and b.status != 'REJECTED'" +
+        " and b.start = (select max(l.start) from Booking l where l.item = i" +
+        " and l.status != 'REJECTED' and l.start < ?3)" +
+        " order by b.id desc")
+    List<ItemBookingDto> findLastBookingsByItemIdsAndOwnerId(
         Collection<Long> ids, Long ownerId, LocalDateTime time
     );
 
-    @Query("select b from Booking b where b.item.id in ?1 and b.item.owner.id = ?2 and b.status != 'REJECTED'" +
-        " and b.start > ?3 order by b.start")
-    List<Booking> findByItemIdAndOwnerIdAndStartDateIsMoreThenNowInOrderByIdAsc(
+    /**
+     * Ближайшее будущее бронирование каждой из вещей владельца, по одной строке на вещь
+     */
+    @Query("select new ru.practicum.shareit.booking.dto.ItemBookingDto(b.item.id, b.id, b.start, b.end," +
+        " b.booker.id, b.status)" +
+        " from Item i join Booking b on b.item = i" +
+        " where i.id in ?1 and i.owner.id = ?2 and b.status != 'REJECTED'" +
+        " and b.start = (select min(n.start) from Booking n where n.item = i" +
+        " and n.status != 'REJECTED' and n.start > ?3)" +
+        " order by b.id")
+    List<ItemBookingDto> findNextBookingsByItemIdsAndOwnerId(
         Collection<Long> ids, Long ownerId, LocalDateTime time
     );
 
-    @Query("select b from Booking b where b.booker.id = ?1 order by b.start DESC")
+    /**
+     * Версия ответа с бронированием для пользователя, которому оно доступно:
+     * версии бронирования, арендатора, вещи и владельца через точку
+     */
+    @Query("select concat(str(b.version), '.', str(bk.version), '.', str(i.version), '.', str(o.version))" +
+        " from Booking b join b.booker bk join b.item i join i.owner o where b.id = ?1 and (bk.id = ?2 or o.id = ?2)")
+    Optional<String> findViewVersion(Long bookingId, Long userId);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking b" +
+        " where b.item.id = ?1 and b.status = ?2 and b.start < ?4 and b.end > ?3")
+    boolean existsOverlapping(Long itemId, BookingStatus status, LocalDateTime start, LocalDateTime end);
+
+    @Query("select b from Booking b where b.item.id in ?1 and b.status = ?2 and b.start < ?4 and b.end > ?3")
+    List<Booking> findOverlapping(
+        Collection<Long> itemIds, BookingStatus status, LocalDateTime start, LocalDateTime end
+    );
+
+    @Query("select distinct b.item.id from Booking b where b.id in ?1 and b.ownerId = ?2")
+    Set<Long> findItemIdsByIdInAndOwnerId(Collection<Long> ids, Long ownerId);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.id in ?1")
+    List<Booking> findAllWithItemAndBookerByIdIn(Collection<Long> ids);
+
+    @Query("select new ru.practicum.shareit.item.availability.BusyInterval(b.id, b.start, b.end) from Booking b" +
+        " where b.item.id = ?1 and b.status in ?2")
+    List<BusyInterval> findBusyIntervals(Long itemId, Collection<BookingStatus> statuses);
+
+    /**
+     * Все бронирования пользователя для выгрузки. Строки читаются курсором порциями по
+     * EXPORT_FETCH_SIZE, поток должен читаться внутри транзакции и закрываться после использования
+     */
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("select b from Booking b where b.booker.id = ?1 order by b.start DESC, b.id DESC")
+    Stream<Booking> streamAllBookingsByBookerId(Long bookerId);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("select b from Booking b where b.ownerId = ?1 order by b.start DESC, b.id DESC")
+    Stream<Booking> streamAllBookingsByOwnerId(Long ownerId);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.booker.id = ?1 order by b.start DESC, b.id DESC")
     List<Booking> findAllBookingsByBookerId(Long bookerId, Pageable pageable);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("select b from Booking b " +
-        "where b.booker.id = ?1 and b.start < ?2 and b.end > ?2 order by b.start DESC")
+        "where b.booker.id = ?1 and b.start < ?2 and b.end > ?2 order by b.start DESC, b.id DESC")
     List<Booking> findCurrentBookingsByBookerId(
         Long bookerId, LocalDateTime currentDate, Pageable pageable
     );
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("select b from Booking b " +
-        "where b.booker.id = ?1 and b.end < ?2 order by b.start DESC")
+        "where b.booker.id = ?1 and b.end < ?2 order by b.start DESC, b.id DESC")
     List<Booking> findPastBookingsByBookerId(
         Long bookerId, LocalDateTime currentDate, Pageable pageable
     );
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("select b from Booking b " +
-        "where b.booker.id = ?1 and b.end > ?2 order by b.start DESC")
+        "where b.booker.id = ?1 and b.end > ?2 order by b.start DESC, b.id DESC")
     List<Booking> findFutureBookingsByBookerId(
         Long bookerId, LocalDateTime currentDate, Pageable pageable
     );
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("select b from Booking b " +
-        "where b.booker.id = ?1 and b.status = ?2 order by b.start DESC")
+        "where b.booker.id = ?1 and b.status = ?2 order by b.start DESC, b.id DESC")
     List<Booking> findBookingsByBookerIdAndStatus(
         Long bookerId, BookingStatus status, Pageable pageable
     );
 
-    @Query("select b from Booking b where b.item.owner.id = ?1 order by b.start DESC")
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.ownerId = ?1 order by b.start DESC, b.id DESC")
     List<Booking> findAllBookingsByOwnerId(Long ownerId, Pageable pageable);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("select b from Booking b " +
-        "where b.item.owner.id = ?1 and b.start < ?2 and b.end > ?2 order by b.start DESC")
+        "where b.ownerId = ?1 and b.start < ?2 and b.end > ?2 order by b.start DESC, b.id DESC")
     List<Booking> findCurrentBookingsByOwnerId(
         Long ownerId, LocalDateTime currentDate, Pageable pageable
     );
 
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("select b from Booking b " +
-        "where b.item.owner.id = ?1 and b.end < ?2 order by b.start DESC")
+        "where b.ownerId = ?1 and b.end < ?2 order by b.start DESC, b.id DESC")
     List<Booking> findPastBookingsByOwnerId(
         Long ownerId, LocalDateTime currentDate, Pageable pageable
     );
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("select b from Booking b " +
-        "where b.item.owner.id = ?1 and b.start > ?2 order by b.start DESC")
+        "where b.ownerId = ?1 and b.start > ?2 order by b.start DESC, b.id DESC")
     List<Booking> findFutureBookingsByOwnerId(
         Long ownerId, LocalDateTime currentDate, Pageable pageable
     );
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     @Query("select b from Booking b " +
-        "where b.item.owner.id = ?1 and b.status = ?2 order by b.start DESC")
+        "where b.ownerId = ?1 and b.status = ?2 order by b.start DESC, b.id DESC")
     List<Booking> findBookingsByOwnerIdAndStatus(
         Long ownerId, BookingStatus status, Pageable pageable
     );
 
+    /*
+     * Варианты запросов выше для постраничной навигации по ключу (start, id):
+     * вместо OFFSET выборка продолжается строго после переданной позиции
+     */
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.booker.id = ?1" +
+        " and b.start <= ?2 and (b.start < ?2 or b.id < ?3) order by b.start DESC, b.id DESC")
+    List<Booking> findAllBookingsByBookerIdAfterCursor(
+        Long bookerId, LocalDateTime cursorStart, Long cursorId, Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.booker.id = ?1 and b.start < ?2 and b.end > ?2" +
+        " and b.start <= ?3 and (b.start < ?3 or b.id < ?4) order by b.start DESC, b.id DESC")
+    List<Booking> findCurrentBookingsByBookerIdAfterCursor(
+        Long bookerId, LocalDateTime currentDate, LocalDateTime cursorStart, Long cursorId, Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.booker.id = ?1 and b.end < ?2" +
+        " and b.start <= ?3 and (b.start < ?3 or b.id < ?4) order by b.start DESC, b.id DESC")
+    List<Booking> findPastBookingsByBookerIdAfterCursor(
+        Long bookerId, LocalDateTime currentDate, LocalDateTime cursorStart, Long cursorId, Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.booker.id = ?1 and b.end > ?2" +
+        " and b.start <= ?3 and (b.start < ?3 or b.id < ?4) order by b.start DESC, b.id DESC")
+    List<Booking> findFutureBookingsByBookerIdAfterCursor(
+        Long bookerId, LocalDateTime currentDate, LocalDateTime cursorStart, Long cursorId, Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.booker.id = ?1 and b.status = ?2" +
+        " and b.start <= ?3 and (b.start < ?3 or b.id < ?4) order by b.start DESC, b.id DESC")
+    List<Booking> findBookingsByBookerIdAndStatusAfterCursor(
+        Long bookerId, BookingStatus status, LocalDateTime cursorStart, Long cursorId, Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.ownerId = ?1" +
+        " and b.start <= ?2 and (b.start < ?2 or b.id < ?3) order by b.start DESC, b.id DESC")
+    List<Booking> findAllBookingsByOwnerIdAfterCursor(
+        Long ownerId, LocalDateTime cursorStart, Long cursorId, Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.ownerId = ?1 and b.start < ?2 and b.end > ?2" +
+        " and b.start <= ?3 and (b.start < ?3 or b.id < ?4) order by b.start DESC, b.id DESC")
+    List<Booking> findCurrentBookingsByOwnerIdAfterCursor(
+        Long ownerId, LocalDateTime currentDate, LocalDateTime cursorStart, Long cursorId, Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.ownerId = ?1 and b.end < ?2" +
+        " and b.start <= ?3 and (b.start < ?3 or b.id < ?4) order by b.start DESC, b.id DESC")
+    List<Booking> findPastBookingsByOwnerIdAfterCursor(
+        Long ownerId, LocalDateTime currentDate, LocalDateTime cursorStart, Long cursorId, Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.ownerId = ?1 and b.start > ?2" +
+        " and b.start <= ?3 and (b.start < ?3 or b.id < ?4) order by b.start DESC, b.id DESC")
+    List<Booking> findFutureBookingsByOwnerIdAfterCursor(
+        Long ownerId, LocalDateTime currentDate, LocalDateTime cursorStart, Long cursorId, Pageable pageable
+    );
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.ownerId = ?1 and b.status = ?2" +
+        " and b.start <= ?3 and (b.start < ?3 or b.id < ?4) order by b.start DESC, b.id DESC")
+    List<Booking> findBookingsByOwnerIdAndStatusAfterCursor(
+        Long ownerId, BookingStatus status, LocalDateTime cursorStart, Long cursorId, Pageable pageable
+    );
+
     List<Booking> findByItemIdAndBookerIdAndEndLessThanAndStatus(
         Long id, Long id1, LocalDateTime end, BookingStatus status
     );
-}
\ No newline at end of file
+}
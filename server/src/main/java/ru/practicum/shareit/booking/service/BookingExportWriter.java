@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.practicum.shareit.booking.constants.ExportFormat;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+/**
+ * Построчная запись бронирований в поток ответа
+ */
+class BookingExportWriter {
+    private static final String CSV_HEADER = "id,start,end,status,itemId,itemName,bookerId\n";
+    private static final byte[] LINE_SEPARATOR = {'\n'};
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final ObjectMapper objectMapper;
+    private final ExportFormat format;
+    private final OutputStream out;
+
+    BookingExportWriter(ObjectMapper objectMapper, ExportFormat format, OutputStream out) throws IOException {
+        this.objectMapper = objectMapper;
+        this.format = format;
+        this.out = out;
+
+        if (format == ExportFormat.CSV) {
+            out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    void write(BookingResponseDto booking) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            out.write(objectMapper.writeValueAsBytes(booking));
+            out.write(LINE_SEPARATOR);
+            return;
+        }
+
+        String line = String.join(",",
+            String.valueOf(booking.getId()),
+            DATE_TIME_FORMAT.format(booking.getStart()),
+            DATE_TIME_FORMAT.format(booking.getEnd()),
+            String.valueOf(booking.getStatus()),
+            String.valueOf(booking.getItem().getId()),
+            escapeCsv(booking.getItem().getName()),
+            String.valueOf(booking.getBooker().getId())
+        ) + "\n";
+
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String escapeCsv(String value) {
+        String text = Objects.toString(value, "");
+
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+
+        return text;
+    }
+}
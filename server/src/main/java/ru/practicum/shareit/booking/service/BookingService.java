@@ -1,20 +1,37 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.PageRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.constants.BookingState;
+import ru.practicum.shareit.booking.constants.ExportFormat;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingService {
     BookingResponseDto createNewBooking(BookingRequestDto bookingRequestDto, long itemId);
 
     BookingResponseDto updateBooking(long bookingId, boolean approved, long itemId);
 
+    List<BookingBatchResultDto> createNewBookings(List<BookingRequestDto> bookingRequestDtos, long userId);
+
+    List<BookingBatchResultDto> updateBookings(List<Long> bookingIds, boolean approved, long userId);
+
     BookingResponseDto getBookingById(long bookingId, long itemId);
 
+    Optional<String> getBookingETag(long bookingId, long userId);
+
     List<BookingResponseDto> getBookings(BookingState state, long itemId, PageRequest pageRequest);
 
     List<BookingResponseDto> getOwnerBookings(BookingState state, long itemId, PageRequest pageRequest);
+
+    List<BookingResponseDto> getBookings(BookingState state, long userId, BookingCursor after, int size);
+
+    List<BookingResponseDto> getOwnerBookings(BookingState state, long ownerId, BookingCursor after, int size);
+
+    StreamingResponseBody exportBookings(long userId, boolean owner, ExportFormat format);
 }
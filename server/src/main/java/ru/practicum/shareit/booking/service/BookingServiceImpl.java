@@ -1,31 +1,51 @@
 package ru.practicum.shareit.booking.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.constants.BookingErrorMessage;
 import ru.practicum.shareit.booking.constants.BookingState;
 import ru.practicum.shareit.booking.constants.BookingStatus;
+import ru.practicum.shareit.booking.constants.ExportFormat;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.ETags;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.constants.ItemErrorMessage;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.constants.UserErrorMessage;
+import ru.practicum.shareit.user.cache.CachedUser;
+import ru.practicum.shareit.user.cache.UserCache;
+import ru.practicum.shareit.user.dto.UserDTO;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -33,30 +53,31 @@ import java.util.stream.Collectors;
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ItemRepository itemRepository;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
 
     @Override
     @Transactional
     public BookingResponseDto createNewBooking(BookingRequestDto bookingRequestDto, long userId) {
-        User user = checkAndReturnUser(userId);
-        Item item = checkAndReturnItem(bookingRequestDto.getItemId());
+        UserDTO booker = UserMapper.toDto(checkAndReturnUser(userId));
+        Item item = lockAndReturnItem(bookingRequestDto.getItemId());
 
-        if (Boolean.FALSE.equals(item.getAvailable())) {
-            throw new BadRequestException(String.format(BookingErrorMessage.ITEM_IS_NOT_AVAILABLE, item.getId()));
-        }
-
-        if (item.getOwner().getId().equals(userId)) {
-            throw new NotFoundException(BookingErrorMessage.USER_OWN_ITEM);
-        }
+        checkCanBook(item, userId);
 
         Booking booking = BookingMapper.toBooking(bookingRequestDto);
+        checkNotBooked(item.getId(), booking);
         booking.setStatus(BookingStatus.WAITING);
-        booking.setBooker(user);
+        booking.setBooker(userRepository.getReferenceById(userId));
         booking.setItem(item);
 
         Booking newBooking = bookingRepository.save(booking);
+        availabilityIndex.update(newBooking);
 
-        return mapBookingToDTO(newBooking);
+        return mapBookingToDTO(newBooking, booker);
     }
 
     @Override
@@ -67,23 +88,130 @@ public class BookingServiceImpl implements BookingService {
         checkAndReturnUser(userId);
         Booking booking = checkAndReturnBooking(bookingId);
 
-        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
-            throw new BadRequestException(String.format(BookingErrorMessage.STATUS_ALREADY_CHANGED, bookingId));
+        if (approved) {
+            lockAndReturnItem(booking.getItem().getId());
+            entityManager.refresh(booking);
         }
 
-        if (booking.getBooker().getId().equals(userId)) {
-            throw new NotFoundException(BookingErrorMessage.NOT_AUTHORIZED);
-        }
+        checkCanChangeStatus(booking, userId);
 
-        if (!booking.getItem().getOwner().getId().equals(userId)) {
-            throw new BadRequestException(BookingErrorMessage.NOT_AUTHORIZED);
+        if (approved) {
+            checkNotBooked(booking.getItem().getId(), booking);
         }
 
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        availabilityIndex.update(booking);
 
         return mapBookingToDTO(booking);
     }
 
+    /**
+     * Пакетное создание бронирований в одной транзакции. Пользователь, вещи и пересекающиеся
+     * подтвержденные бронирования загружаются общими запросами, а вставки уходят JDBC пакетами.
+     * Ошибка в элементе не отменяет остальные элементы и возвращается в его результате
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createNewBookings(List<BookingRequestDto> bookingRequestDtos, long userId) {
+        UserDTO booker = UserMapper.toDto(checkAndReturnUser(userId));
+        User user = userRepository.getReferenceById(userId);
+        List<Booking> bookings = bookingRequestDtos.stream().map(BookingMapper::toBooking).collect(Collectors.toList());
+        Map<Long, Item> items = lockAndReturnItems(bookingRequestDtos.stream()
+            .map(BookingRequestDto::getItemId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet()));
+        Map<Long, List<Booking>> approvedBookings = findApprovedBookings(items.keySet(), bookings);
+
+        List<BookingBatchResultDto> results = new ArrayList<>();
+
+        for (int i = 0; i < bookings.size(); i++) {
+            Long itemId = bookingRequestDtos.get(i).getItemId();
+            Booking booking = bookings.get(i);
+
+            try {
+                Item item = Optional.ofNullable(items.get(itemId))
+                    .orElseThrow(() -> new NotFoundException(String.format(ItemErrorMessage.NOT_FOUND, itemId)));
+
+                checkCanBook(item, userId);
+                checkNotBooked(itemId, booking, approvedBookings.getOrDefault(itemId, List.of()));
+                booking.setStatus(BookingStatus.WAITING);
+                booking.setBooker(user);
+                booking.setItem(item);
+
+                Booking newBooking = bookingRepository.save(booking);
+                availabilityIndex.update(newBooking);
+
+                results.add(BookingBatchResultDto.builder()
+                    .status(HttpStatus.CREATED.value())
+                    .booking(mapBookingToDTO(newBooking, booker))
+                    .build());
+            } catch (NotFoundException | BadRequestException | ConflictException e) {
+                results.add(toBatchResult(e));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Пакетное подтверждение или отклонение бронирований в одной транзакции.
+     * При подтверждении вещи владельца блокируются одним запросом до загрузки бронирований,
+     * поэтому статусы проверяются по данным, прочитанным под блокировкой.
+     * Бронирования с вещами и авторами загружаются одним запросом
+     */
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> updateBookings(List<Long> bookingIds, boolean approved, long userId) {
+        checkAndReturnUser(userId);
+
+        if (bookingIds.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> lockedItemIds = approved
+            ? lockAndReturnItems(bookingRepository.findItemIdsByIdInAndOwnerId(bookingIds, userId)).keySet()
+            : Set.of();
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemAndBookerByIdIn(bookingIds).stream()
+            .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Map<Long, List<Booking>> approvedBookings = new HashMap<>();
+
+        if (approved) {
+            List<Booking> ownBookings = bookings.values().stream()
+                .filter(booking -> lockedItemIds.contains(booking.getItem().getId()))
+                .collect(Collectors.toList());
+
+            approvedBookings.putAll(findApprovedBookings(lockedItemIds, ownBookings));
+        }
+
+        List<BookingBatchResultDto> results = new ArrayList<>();
+
+        for (Long bookingId : bookingIds) {
+            try {
+                Booking booking = Optional.ofNullable(bookings.get(bookingId)).orElseThrow(() ->
+                    new NotFoundException(String.format(BookingErrorMessage.BOOKING_NOT_FOUND, bookingId)));
+
+                checkCanChangeStatus(booking, userId);
+
+                if (approved) {
+                    Long itemId = booking.getItem().getId();
+                    List<Booking> itemApprovedBookings = approvedBookings.computeIfAbsent(itemId, id -> new ArrayList<>());
+
+                    checkNotBooked(itemId, booking, itemApprovedBookings);
+                    itemApprovedBookings.add(booking);
+                }
+
+                booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+                availabilityIndex.update(booking);
+
+                results.add(toBatchResult(HttpStatus.OK, booking));
+            } catch (NotFoundException | BadRequestException | ConflictException e) {
+                results.add(toBatchResult(e));
+            }
+        }
+
+        return results;
+    }
+
     @Override
     public BookingResponseDto getBookingById(long bookingId, long userId) {
         Booking booking = checkAndReturnBooking(bookingId);
@@ -97,6 +225,11 @@ public class BookingServiceImpl implements BookingService {
         throw new NotFoundException(String.format(BookingErrorMessage.BOOKING_NOT_FOUND, bookingId));
     }
 
+    @Override
+    public Optional<String> getBookingETag(long bookingId, long userId) {
+        return bookingRepository.findViewVersion(bookingId, userId).map(version -> ETags.of(bookingId, version));
+    }
+
     @Override
     public List<BookingResponseDto> getBookings(BookingState state, long userId, PageRequest pageRequest) {
         checkAndReturnUser(userId);
@@ -165,8 +298,147 @@ public class BookingServiceImpl implements BookingService {
         return mapBookingToDTO(bookings);
     }
 
+    @Override
+    public List<BookingResponseDto> getBookings(BookingState state, long userId, BookingCursor after, int size) {
+        checkAndReturnUser(userId);
+
+        LocalDateTime currentTime = LocalDateTime.now();
+        LocalDateTime cursorStart = after.getStart();
+        Long cursorId = after.getId();
+        PageRequest pageRequest = PageRequest.of(0, size);
+
+        List<Booking> bookings;
+
+        switch (state) {
+            case CURRENT:
+                bookings = bookingRepository.findCurrentBookingsByBookerIdAfterCursor(
+                    userId, currentTime, cursorStart, cursorId, pageRequest);
+                break;
+            case PAST:
+                bookings = bookingRepository.findPastBookingsByBookerIdAfterCursor(
+                    userId, currentTime, cursorStart, cursorId, pageRequest);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findFutureBookingsByBookerIdAfterCursor(
+                    userId, currentTime, cursorStart, cursorId, pageRequest);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findBookingsByBookerIdAndStatusAfterCursor(
+                    userId, BookingStatus.WAITING, cursorStart, cursorId, pageRequest);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findBookingsByBookerIdAndStatusAfterCursor(
+                    userId, BookingStatus.REJECTED, cursorStart, cursorId, pageRequest);
+                break;
+            case ALL:
+            default:
+                bookings = bookingRepository.findAllBookingsByBookerIdAfterCursor(
+                    userId, cursorStart, cursorId, pageRequest);
+        }
+        return mapBookingToDTO(bookings);
+    }
+
+    @Override
+    public List<BookingResponseDto> getOwnerBookings(
+        BookingState state, long ownerId, BookingCursor after, int size
+    ) {
+        checkAndReturnUser(ownerId);
+
+        LocalDateTime currentTime = LocalDateTime.now();
+        LocalDateTime cursorStart = after.getStart();
+        Long cursorId = after.getId();
+        PageRequest pageRequest = PageRequest.of(0, size);
+
+        List<Booking> bookings;
+
+        switch (state) {
+            case CURRENT:
+                bookings = bookingRepository.findCurrentBookingsByOwnerIdAfterCursor(
+                    ownerId, currentTime, cursorStart, cursorId, pageRequest);
+                break;
+            case PAST:
+                bookings = bookingRepository.findPastBookingsByOwnerIdAfterCursor(
+                    ownerId, currentTime, cursorStart, cursorId, pageRequest);
+                break;
+            case FUTURE:
+                bookings = bookingRepository.findFutureBookingsByOwnerIdAfterCursor(
+                    ownerId, currentTime, cursorStart, cursorId, pageRequest);
+                break;
+            case WAITING:
+                bookings = bookingRepository.findBookingsByOwnerIdAndStatusAfterCursor(
+                    ownerId, BookingStatus.WAITING, cursorStart, cursorId, pageRequest);
+                break;
+            case REJECTED:
+                bookings = bookingRepository.findBookingsByOwnerIdAndStatusAfterCursor(
+                    ownerId, BookingStatus.REJECTED, cursorStart, cursorId, pageRequest);
+                break;
+            case ALL:
+            default:
+                bookings = bookingRepository.findAllBookingsByOwnerIdAfterCursor(
+                    ownerId, cursorStart, cursorId, pageRequest);
+        }
+        return mapBookingToDTO(bookings);
+    }
+
+    /**
+     * Пользователь проверяется сразу, а бронирования читаются уже при записи ответа
+     * в отдельной транзакции, которую открывает возвращаемый StreamingResponseBody
+     */
+    @Override
+    public StreamingResponseBody exportBookings(long userId, boolean owner, ExportFormat format) {
+        checkAndReturnUser(userId);
+
+        return out -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+
+            try {
+                transaction.executeWithoutResult(status -> writeBookings(userId, owner, format, out));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    /**
+     * Записанное бронирование сразу отсоединяется от контекста, а после каждой порции курсора
+     * контекст очищается от вещей и пользователей, поэтому память не растет с числом бронирований
+     */
+    private void writeBookings(long userId, boolean owner, ExportFormat format, OutputStream out) {
+        int fetchSize = Integer.parseInt(BookingRepository.EXPORT_FETCH_SIZE);
+
+        try (Stream<Booking> bookings = owner
+            ? bookingRepository.streamAllBookingsByOwnerId(userId)
+            : bookingRepository.streamAllBookingsByBookerId(userId)
+        ) {
+            BookingExportWriter writer = new BookingExportWriter(objectMapper, format, out);
+            Iterator<Booking> iterator = bookings.iterator();
+            long written = 0;
+
+            while (iterator.hasNext()) {
+                Booking booking = iterator.next();
+
+                writer.write(mapBookingToDTO(booking));
+                entityManager.detach(booking);
+
+                if (++written % fetchSize == 0) {
+                    entityManager.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     private BookingResponseDto mapBookingToDTO(Booking booking) {
-        return BookingMapper.toResponseDto(booking, UserMapper.toDto(booking.getBooker()),
+        return mapBookingToDTO(booking, UserMapper.toDto(booking.getBooker()));
+    }
+
+    /**
+     * Арендатор передается отдельно, когда в бронировании ссылка на него без загруженных полей
+     */
+    private BookingResponseDto mapBookingToDTO(Booking booking, UserDTO booker) {
+        return BookingMapper.toResponseDto(booking, booker,
             ItemMapper.toResponseDto(booking.getItem(), UserMapper.toDto(booking.getItem().getOwner()))
         );
     }
@@ -175,16 +447,105 @@ public class BookingServiceImpl implements BookingService {
         return bookings.stream().map(this::mapBookingToDTO).collect(Collectors.toList());
     }
 
-    private User checkAndReturnUser(long userId) {
-        return userRepository.findById(userId)
+    private BookingBatchResultDto toBatchResult(HttpStatus status, Booking booking) {
+        return BookingBatchResultDto.builder().status(status.value()).booking(mapBookingToDTO(booking)).build();
+    }
+
+    private BookingBatchResultDto toBatchResult(RuntimeException e) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+
+        if (e instanceof NotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+        } else if (e instanceof ConflictException) {
+            status = HttpStatus.CONFLICT;
+        }
+
+        return BookingBatchResultDto.builder().status(status.value()).error(e.getMessage()).build();
+    }
+
+    private void checkCanBook(Item item, long userId) {
+        if (Boolean.FALSE.equals(item.getAvailable())) {
+            throw new BadRequestException(String.format(BookingErrorMessage.ITEM_IS_NOT_AVAILABLE, item.getId()));
+        }
+
+        if (item.getOwner().getId().equals(userId)) {
+            throw new NotFoundException(BookingErrorMessage.USER_OWN_ITEM);
+        }
+    }
+
+    private void checkCanChangeStatus(Booking booking, long userId) {
+        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+            throw new BadRequestException(String.format(BookingErrorMessage.STATUS_ALREADY_CHANGED, booking.getId()));
+        }
+
+        if (booking.getBooker().getId().equals(userId)) {
+            throw new NotFoundException(BookingErrorMessage.NOT_AUTHORIZED);
+        }
+
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
+            throw new BadRequestException(BookingErrorMessage.NOT_AUTHORIZED);
+        }
+    }
+
+    private CachedUser checkAndReturnUser(long userId) {
+        return userCache.find(userId)
             .orElseThrow(() -> new NotFoundException(String.format(UserErrorMessage.NOT_FOUND, userId)));
     }
 
-    private Item checkAndReturnItem(long itemId) {
-        return itemRepository.findById(itemId)
+    private Item lockAndReturnItem(long itemId) {
+        return itemRepository.findForUpdateById(itemId)
             .orElseThrow(() -> new NotFoundException(String.format(ItemErrorMessage.NOT_FOUND, itemId)));
     }
 
+    /**
+     * Блокировка вещей пакета. Владельцы вещей догружаются сразу после вещей
+     * пакетными запросами по {@link org.hibernate.annotations.BatchSize} на {@link User}
+     */
+    private Map<Long, Item> lockAndReturnItems(Set<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return itemRepository.findAllForUpdateByIdIn(itemIds).stream()
+            .collect(Collectors.toMap(Item::getId, Function.identity()));
+    }
+
+    /**
+     * Подтвержденные бронирования вещей, пересекающие период от самого раннего начала
+     * до самого позднего окончания бронирований пакета
+     */
+    private Map<Long, List<Booking>> findApprovedBookings(Set<Long> itemIds, List<Booking> bookings) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+
+        LocalDateTime start = bookings.stream().map(Booking::getStart).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime end = bookings.stream().map(Booking::getEnd).max(Comparator.naturalOrder()).orElseThrow();
+
+        return bookingRepository.findOverlapping(itemIds, BookingStatus.APPROVED, start, end).stream()
+            .collect(Collectors.groupingBy(booking -> booking.getItem().getId(),
+                Collectors.toCollection(ArrayList::new)));
+    }
+
+    private void checkNotBooked(long itemId, Booking booking, List<Booking> approvedBookings) {
+        boolean overlaps = approvedBookings.stream().anyMatch(approvedBooking ->
+            approvedBooking.getStart().isBefore(booking.getEnd()) && approvedBooking.getEnd().isAfter(booking.getStart()));
+
+        if (overlaps) {
+            throw new ConflictException(String.format(BookingErrorMessage.ITEM_ALREADY_BOOKED, itemId));
+        }
+    }
+
+    /**
+     * Проверка, что на время бронирования вещь не занята подтвержденным бронированием.
+     * Вызывается под блокировкой строки вещи, поэтому параллельные запросы не пропустят пересечение
+     */
+    private void checkNotBooked(long itemId, Booking booking) {
+        if (bookingRepository.existsOverlapping(itemId, BookingStatus.APPROVED, booking.getStart(), booking.getEnd())) {
+            throw new ConflictException(String.format(BookingErrorMessage.ITEM_ALREADY_BOOKED, itemId));
+        }
+    }
+
     private Booking checkAndReturnBooking(long bookingId) {
         return bookingRepository.findById(bookingId)
             .orElseThrow(() -> new NotFoundException(String.format(BookingErrorMessage.BOOKING_NOT_FOUND, bookingId)));
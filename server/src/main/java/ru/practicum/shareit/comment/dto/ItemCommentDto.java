@@ -0,0 +1,21 @@
+package ru.practicum.shareit.comment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Комментарий к вещи, выбираемый запросом сразу в DTO без загрузки сущностей
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemCommentDto {
+    private Long itemId;
+    private Integer id;
+    private String text;
+    private String authorName;
+    private LocalDateTime created;
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.comment.mapper;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.comment.dto.CommentResponseDto;
+import ru.practicum.shareit.comment.dto.ItemCommentDto;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.user.dto.UserDTO;
 
@@ -18,6 +19,15 @@ public class CommentMapper {
             .build();
     }
 
+    public static CommentResponseDto toResponseDto(ItemCommentDto comment) {
+        return CommentResponseDto.builder()
+            .id(comment.getId())
+            .created(comment.getCreated())
+            .text(comment.getText())
+            .authorName(comment.getAuthorName())
+            .build();
+    }
+
     public static Comment toComment(CommentRequestDto commentRequestDto) {
         return Comment.builder()
             .text(commentRequestDto.getText())
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.comment.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.comment.dto.ItemCommentDto;
 import ru.practicum.shareit.comment.model.Comment;
 
 import java.util.Collection;
@@ -9,7 +11,8 @@ import java.util.List;
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
     List<Comment> findByItemId(Long id);
 
-    List<Comment> findByItemIdInOrderByCreatedAsc(Collection<Long> ids);
-
+    @Query("select new ru.practicum.shareit.comment.dto.ItemCommentDto(c.item.id, c.id, c.text, c.author.name," +
+        " c.created) from Comment c where c.item.id in ?1 order by c.created")
+    List<ItemCommentDto> findItemCommentsByItemIdIn(Collection<Long> ids);
 
 }
\ No newline at end of file
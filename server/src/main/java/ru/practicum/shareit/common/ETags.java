@@ -0,0 +1,20 @@
+package ru.practicum.shareit.common;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class ETags {
+    /**
+     * Строгий ETag ответа по идентификатору записи и версии его содержимого
+     */
+    public static String of(Long id, Long version) {
+        return of(id, String.valueOf(version));
+    }
+
+    /**
+     * Строгий ETag ответа по идентификатору записи и составной версии из нескольких счетчиков
+     */
+    public static String of(Long id, String version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.Nullable;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Обертка источника данных, вызывающая {@link #beforeExecute} и {@link #afterExecute} вокруг
+ * каждого метода execute* выражений, созданных его соединениями. Соединения и выражения
+ * оборачиваются динамическими прокси по типу, объявленному в методе (Statement, PreparedStatement
+ * или CallableStatement). {@link DelegatingDataSource} разворачивается метриками и health-проверкой
+ * пула Spring Boot
+ */
+public abstract class StatementInterceptingDataSource extends DelegatingDataSource {
+
+    protected StatementInterceptingDataSource(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    /**
+     * Вызывается перед выполнением, sql - текст выражения или имя метода, если текст неизвестен
+     */
+    protected void beforeExecute(String sql) throws SQLException {
+    }
+
+    /**
+     * Вызывается после выполнения, в том числе завершившегося ошибкой
+     */
+    protected void afterExecute(String sql, long elapsedNanos) {
+    }
+
+    /**
+     * Текст prepared выражения известен только при создании, поэтому запоминается в обертке
+     */
+    private Connection wrap(Connection connection) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+
+            if (result != null && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return wrap(result, method.getReturnType(), firstStringArgument(args));
+            }
+            return result;
+        };
+
+        return (Connection) Proxy.newProxyInstance(
+            StatementInterceptingDataSource.class.getClassLoader(), new Class<?>[]{Connection.class}, handler
+        );
+    }
+
+    private Object wrap(Object statement, Class<?> type, @Nullable String preparedSql) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+
+            String sql = preparedSql != null ? preparedSql : sql(method, args);
+            beforeExecute(sql);
+
+            long start = System.nanoTime();
+
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                afterExecute(sql, System.nanoTime() - start);
+            }
+        };
+
+        return Proxy.newProxyInstance(
+            StatementInterceptingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler
+        );
+    }
+
+    private static String sql(Method method, @Nullable Object[] args) {
+        String sql = firstStringArgument(args);
+        return sql != null ? sql : method.getName();
+    }
+
+    @Nullable
+    private static String firstStringArgument(@Nullable Object[] args) {
+        return args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+    }
+
+    private static Object invoke(Object target, Method method, @Nullable Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
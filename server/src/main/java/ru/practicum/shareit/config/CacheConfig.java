@@ -0,0 +1,13 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Менеджер кэшей Caffeine из spring.cache.*. Кэш пользователей заполняется и очищается
+ * в {@link ru.practicum.shareit.user.cache.UserCache}, который сам защищает кэш от устаревших значений
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
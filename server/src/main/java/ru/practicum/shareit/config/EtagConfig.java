@@ -0,0 +1,23 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * ETag для ответов на GET запросы. Если ETag из If-None-Match совпадает с ответом,
+ * вместо тела возвращается 304. Gateway использует это для перепроверки закэшированных ответов
+ */
+@Configuration
+public class EtagConfig {
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+            new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+
+        registration.addUrlPatterns("/users/*", "/items/*", "/bookings/*", "/requests/*");
+
+        return registration;
+    }
+}
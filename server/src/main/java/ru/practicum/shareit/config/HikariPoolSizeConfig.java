@@ -0,0 +1,30 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Размер пула соединений в профиле perf вычисляется по числу ядер: cores * 2 + 1.
+ * Пул фиксированного размера, чтобы не тратить время на открытие соединений под нагрузкой
+ */
+@Slf4j
+@Configuration
+@Profile("perf")
+public class HikariPoolSizeConfig implements BeanPostProcessor {
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource) {
+            int poolSize = Runtime.getRuntime().availableProcessors() * 2 + 1;
+            HikariDataSource dataSource = (HikariDataSource) bean;
+
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setMinimumIdle(poolSize);
+            log.info("Hikari pool size set to {}", poolSize);
+        }
+
+        return bean;
+    }
+}
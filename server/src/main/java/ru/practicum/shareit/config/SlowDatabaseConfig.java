@@ -0,0 +1,57 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import ru.practicum.shareit.common.StatementInterceptingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Искусственно медленная база в профиле slow-db: каждое выполнение SQL задерживается
+ * на shareit.slow-db.statement-delay, пока соединение занято. Используется для сравнения
+ * режимов с потоками ОС и с виртуальными потоками (см. VirtualThreadsConfig)
+ */
+@Slf4j
+@Configuration
+@Profile("slow-db")
+public class SlowDatabaseConfig implements BeanPostProcessor {
+    private final Duration statementDelay;
+
+    public SlowDatabaseConfig(@Value("${shareit.slow-db.statement-delay}") Duration statementDelay) {
+        this.statementDelay = statementDelay;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof SlowDataSource)) {
+            log.warn("SQL statements are delayed by {}", statementDelay);
+            return new SlowDataSource((DataSource) bean, statementDelay);
+        }
+
+        return bean;
+    }
+
+    private static class SlowDataSource extends StatementInterceptingDataSource {
+        private final long delayMillis;
+
+        SlowDataSource(DataSource dataSource, Duration delay) {
+            super(dataSource);
+            this.delayMillis = delay.toMillis();
+        }
+
+        @Override
+        protected void beforeExecute(String sql) throws SQLException {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while delaying statement", e);
+            }
+        }
+    }
+}
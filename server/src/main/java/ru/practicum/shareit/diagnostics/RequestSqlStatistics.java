@@ -0,0 +1,58 @@
+package ru.practicum.shareit.diagnostics;
+
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Выражения SQL, выполненные в текущем HTTP запросе. Существует только для запросов,
+ * попавших в выборку SqlDiagnosticsFilter, и доступна из потока, обрабатывающего запрос
+ */
+class RequestSqlStatistics {
+    private static final ThreadLocal<RequestSqlStatistics> CURRENT = new ThreadLocal<>();
+
+    @Getter
+    private final String request;
+
+    @Getter
+    private int statements;
+
+    /**
+     * Количество выполнений по тексту выражения. Hibernate передает параметры через ?,
+     * поэтому ленивая загрузка одной связи для каждой строки дает один и тот же текст
+     */
+    private final Map<String, Integer> executions = new HashMap<>();
+
+    private RequestSqlStatistics(String request) {
+        this.request = request;
+    }
+
+    static RequestSqlStatistics start(String request) {
+        RequestSqlStatistics statistics = new RequestSqlStatistics(request);
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void finish() {
+        CURRENT.remove();
+    }
+
+    @Nullable
+    static RequestSqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return сколько раз выражение выполнено в запросе, включая текущее
+     */
+    int record(String sql) {
+        statements++;
+        return executions.merge(sql, 1, Integer::sum);
+    }
+
+    int getDistinctStatements() {
+        return executions.size();
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.diagnostics;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Кольцевой буфер последних медленных выражений SQL. Запись без блокировок,
+ * при переполнении самые старые записи перезаписываются
+ */
+public class SlowStatementLog {
+    private final long thresholdNanos;
+    private final AtomicReferenceArray<SlowStatement> statements;
+    private final AtomicLong next = new AtomicLong();
+
+    public SlowStatementLog(SqlDiagnosticsProperties properties) {
+        this.thresholdNanos = properties.getSlowStatementThreshold().toNanos();
+        this.statements = new AtomicReferenceArray<>(properties.getSlowStatementBufferSize());
+    }
+
+    void record(String sql, long elapsedNanos) {
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+
+        RequestSqlStatistics statistics = RequestSqlStatistics.current();
+        SlowStatement statement = new SlowStatement(Instant.now(), elapsedNanos / 1_000_000, sql,
+            statistics != null ? statistics.getRequest() : null
+        );
+
+        statements.set((int) (next.getAndIncrement() % statements.length()), statement);
+    }
+
+    /**
+     * @return сохраненные выражения, последние первыми
+     */
+    public List<SlowStatement> getStatements() {
+        List<SlowStatement> result = new ArrayList<>(statements.length());
+        long last = next.get();
+
+        for (long i = last - 1; i >= 0 && i >= last - statements.length(); i--) {
+            SlowStatement statement = statements.get((int) (i % statements.length()));
+
+            if (statement != null) {
+                result.add(statement);
+            }
+        }
+
+        return result;
+    }
+
+    public void clear() {
+        for (int i = 0; i < statements.length(); i++) {
+            statements.set(i, null);
+        }
+    }
+
+    /**
+     * Запрос указывается только для HTTP запросов из выборки SqlDiagnosticsFilter
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class SlowStatement {
+        private final Instant time;
+        private final long durationMillis;
+        private final String sql;
+        @Nullable
+        private final String request;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.diagnostics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * /actuator/slowsql: GET возвращает последние медленные выражения, DELETE очищает буфер
+ */
+@Endpoint(id = "slowsql")
+@RequiredArgsConstructor
+public class SlowStatementsEndpoint {
+    private final SlowStatementLog slowStatementLog;
+
+    @ReadOperation
+    public List<SlowStatementLog.SlowStatement> slowStatements() {
+        return slowStatementLog.getStatements();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowStatementLog.clear();
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.diagnostics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Диагностика SQL, включается свойством shareit.sql-diagnostics.enabled:
+ * <ul>
+ *     <li>число выражений на HTTP запрос и повторяющиеся выражения (N+1) для доли запросов sample-rate</li>
+ *     <li>время каждого выражения, медленные доступны в /actuator/slowsql</li>
+ * </ul>
+ * Выборка запросов ограничивает затраты на подсчет, поэтому диагностику можно включать в production
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.sql-diagnostics.enabled", havingValue = "true")
+public class SqlDiagnosticsConfig {
+    @Bean
+    public static SlowStatementLog slowStatementLog(SqlDiagnosticsProperties properties) {
+        return new SlowStatementLog(properties);
+    }
+
+    /**
+     * Метод статический, чтобы обработчик бинов создавался раньше источника данных
+     */
+    @Bean
+    public static BeanPostProcessor timedDataSourcePostProcessor(SlowStatementLog slowStatementLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof TimedDataSource)) {
+                    log.info("SQL diagnostics enabled for data source {}", beanName);
+                    return new TimedDataSource((DataSource) bean, slowStatementLog);
+                }
+
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter(SqlDiagnosticsProperties properties) {
+        return new SqlStatementCounter(properties);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlDiagnosticsFilter> sqlDiagnosticsFilter(
+        SqlDiagnosticsProperties properties, MeterRegistry meterRegistry
+    ) {
+        return new FilterRegistrationBean<>(new SqlDiagnosticsFilter(properties, meterRegistry));
+    }
+
+    @Bean
+    public SlowStatementsEndpoint slowStatementsEndpoint(SlowStatementLog slowStatementLog) {
+        return new SlowStatementsEndpoint(slowStatementLog);
+    }
+}
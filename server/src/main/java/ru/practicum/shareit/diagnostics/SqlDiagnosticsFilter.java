@@ -0,0 +1,79 @@
+package ru.practicum.shareit.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Отбирает долю sample-rate HTTP запросов для подсчета выражений SQL ({@link SqlStatementCounter}).
+ * Число выражений на запрос публикуется метрикой shareit.sql.statements по шаблону маршрута,
+ * запросы больше statement-threshold пишутся в журнал и считаются в shareit.sql.requests.flagged
+ */
+@Slf4j
+public class SqlDiagnosticsFilter extends OncePerRequestFilter {
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final double sampleRate;
+    private final int statementThreshold;
+    private final MeterRegistry meterRegistry;
+
+    public SqlDiagnosticsFilter(SqlDiagnosticsProperties properties, MeterRegistry meterRegistry) {
+        this.sampleRate = properties.getSampleRate();
+        this.statementThreshold = properties.getStatementThreshold();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request, HttpServletResponse response, FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RequestSqlStatistics statistics =
+            RequestSqlStatistics.start(request.getMethod() + " " + request.getRequestURI());
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestSqlStatistics.finish();
+            report(statistics, request);
+        }
+    }
+
+    private void report(RequestSqlStatistics statistics, HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+
+        DistributionSummary.builder("shareit.sql.statements")
+            .description("SQL statements per sampled HTTP request")
+            .tag("method", request.getMethod())
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(statistics.getStatements());
+
+        if (statistics.getStatements() > statementThreshold) {
+            Counter.builder("shareit.sql.requests.flagged")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .increment();
+
+            log.warn("{} executed {} SQL statements ({} distinct), threshold {}",
+                statistics.getRequest(), statistics.getStatements(), statistics.getDistinctStatements(),
+                statementThreshold);
+        }
+    }
+}
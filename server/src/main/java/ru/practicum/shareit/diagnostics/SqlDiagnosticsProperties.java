@@ -0,0 +1,47 @@
+package ru.practicum.shareit.diagnostics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки диагностики SQL: подсчет выражений на запрос, поиск N+1 и журнал медленных выражений
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit.sql-diagnostics")
+public class SqlDiagnosticsProperties {
+    /**
+     * Включить диагностику (см. SqlDiagnosticsConfig)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Доля HTTP запросов, для которых считаются выражения и ищутся повторы, от 0 до 1
+     */
+    private double sampleRate = 0.1;
+
+    /**
+     * Запрос, выполнивший больше выражений, попадает в журнал
+     */
+    private int statementThreshold = 30;
+
+    /**
+     * Одно и то же выражение, выполненное в запросе столько раз, считается признаком N+1
+     */
+    private int repeatedStatementThreshold = 10;
+
+    /**
+     * Выражения дольше этого времени сохраняются в /actuator/slowsql, замеряются все выражения
+     */
+    private Duration slowStatementThreshold = Duration.ofMillis(200);
+
+    /**
+     * Количество последних медленных выражений, которые хранятся в памяти
+     */
+    private int slowStatementBufferSize = 100;
+}
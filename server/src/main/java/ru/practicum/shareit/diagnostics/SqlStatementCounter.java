@@ -0,0 +1,47 @@
+package ru.practicum.shareit.diagnostics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.stream.Collectors;
+
+/**
+ * Считает выражения, которые Hibernate готовит в рамках HTTP запроса из выборки.
+ * Когда одно выражение повторяется repeated-statement-threshold раз, в журнал пишется
+ * стек вызова в коде приложения, например сервисный метод с ленивой загрузкой в цикле.
+ * Вне выборки стоимость - одно чтение ThreadLocal на выражение
+ */
+@Slf4j
+public class SqlStatementCounter implements StatementInspector {
+    private static final String APPLICATION_PACKAGE = "ru.practicum.shareit.";
+    private static final int CALL_SITE_DEPTH = 10;
+
+    private final int repeatedStatementThreshold;
+
+    public SqlStatementCounter(SqlDiagnosticsProperties properties) {
+        this.repeatedStatementThreshold = properties.getRepeatedStatementThreshold();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        RequestSqlStatistics statistics = RequestSqlStatistics.current();
+
+        if (statistics != null && statistics.record(sql) == repeatedStatementThreshold) {
+            log.warn("Possible N+1 in {}: statement executed {} times: {}{}",
+                statistics.getRequest(), repeatedStatementThreshold, sql, callSite());
+        }
+
+        return sql;
+    }
+
+    private static String callSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+            .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE))
+            .filter(frame -> !frame.getClassName().startsWith(SqlStatementCounter.class.getPackageName()))
+            .filter(frame -> !frame.getClassName().contains("$$"))
+            .limit(CALL_SITE_DEPTH)
+            .map(frame -> "\n\tat " + frame)
+            .collect(Collectors.joining())
+        );
+    }
+}
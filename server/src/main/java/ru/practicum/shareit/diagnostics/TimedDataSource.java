@@ -0,0 +1,22 @@
+package ru.practicum.shareit.diagnostics;
+
+import ru.practicum.shareit.common.StatementInterceptingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Замеряет каждое выполнение SQL и передает время в {@link SlowStatementLog}
+ */
+class TimedDataSource extends StatementInterceptingDataSource {
+    private final SlowStatementLog slowStatementLog;
+
+    TimedDataSource(DataSource dataSource, SlowStatementLog slowStatementLog) {
+        super(dataSource);
+        this.slowStatementLog = slowStatementLog;
+    }
+
+    @Override
+    protected void afterExecute(String sql, long elapsedNanos) {
+        slowStatementLog.record(sql, elapsedNanos);
+    }
+}
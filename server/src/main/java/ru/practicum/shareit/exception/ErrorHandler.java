@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingPathVariableException;
 import org.springframework.web.bind.MissingRequestHeaderException;
@@ -35,6 +36,16 @@ public class ErrorHandler {
         return new ErrorResponse(message);
     }
 
+    /**
+     * Запись изменена параллельным запросом после того, как была прочитана: версия не совпала
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLock(final ObjectOptimisticLockingFailureException e) {
+        log.error("Optimistic lock failed: {} id={}", e.getPersistentClassName(), e.getIdentifier());
+        return new ErrorResponse("Запись была изменена другим запросом, повторите запрос");
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleNotFoundException(final NotFoundException e) {
@@ -1,17 +1,22 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.comment.dto.CommentResponseDto;
 import ru.practicum.shareit.common.AppPageRequest;
 import ru.practicum.shareit.constant.CustomHeaders;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 
 @RestController
@@ -32,11 +37,36 @@ public class ItemController {
     @GetMapping("/{itemId}")
     public ItemResponseDto getItemById(
         @PathVariable Long itemId,
-        @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId
+        @RequestHeader(CustomHeaders.USER_ID_HEADER) long userId,
+        WebRequest request
     ) {
+        Optional<String> eTag = itemService.getItemETag(itemId, userId);
+
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return null;
+        }
+
         return itemService.getItemById(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(
+        @PathVariable Long itemId,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return itemService.getAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/availability")
+    public List<ItemAvailabilityDto> getAvailability(
+        @RequestParam List<Long> ids,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return itemService.getAvailability(ids, from, to);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public ItemResponseDto saveItem(
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Интервал [start, end), на который вещь занята бронированием
+ */
+@Getter
+@AllArgsConstructor
+public class BusyInterval {
+    private final Long bookingId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
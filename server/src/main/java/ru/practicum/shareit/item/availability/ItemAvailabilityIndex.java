@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.constants.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Индекс занятости вещей по бронированиям в статусах WAITING и APPROVED.
+ * Интервалы вещи загружаются из {@link BookingRepository} при первом обращении
+ * и затем обновляются после фиксации транзакций, изменивших бронирования
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemAvailabilityIndex {
+    private static final Set<BookingStatus> BUSY_STATUSES = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    private static final long MAX_INDEXED_ITEMS = 100_000;
+
+    private final BookingRepository bookingRepository;
+
+    /**
+     * В кэш сразу помещается пустой незагруженный набор, а запрос к базе выполняется уже вне
+     * блокировки кэша. Изменение, зафиксированное до появления набора, видно загрузке,
+     * а зафиксированное после - применяется к набору, поэтому обновления не теряются
+     */
+    private final Cache<Long, ItemIntervals> items = Caffeine.newBuilder()
+        .maximumSize(MAX_INDEXED_ITEMS)
+        .build();
+
+    public List<TimeSlotDto> getFreeSlots(long itemId, LocalDateTime from, LocalDateTime to) {
+        return items.get(itemId, id -> new ItemIntervals()).getFreeSlots(from, to, () -> load(itemId));
+    }
+
+    public void update(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        BusyInterval interval = new BusyInterval(booking.getId(), booking.getStart(), booking.getEnd());
+        boolean busy = BUSY_STATUSES.contains(booking.getStatus());
+
+        afterCommit(() -> {
+            ItemIntervals intervals = items.getIfPresent(itemId);
+
+            if (intervals == null) {
+                return;
+            }
+
+            if (busy) {
+                intervals.add(interval);
+            } else {
+                intervals.remove(interval.getBookingId());
+            }
+        });
+    }
+
+    public void evict(long itemId) {
+        afterCommit(() -> items.invalidate(itemId));
+    }
+
+    public void evictAll() {
+        afterCommit(items::invalidateAll);
+    }
+
+    private List<BusyInterval> load(Long itemId) {
+        return bookingRepository.findBusyIntervals(itemId, BUSY_STATUSES);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item.availability;
+
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Занятые интервалы одной вещи, упорядоченные по началу.
+ * Интервал пересекает окно [from, to), только если начинается раньше to и не раньше
+ * from - maxDuration, поэтому поиск затрагивает O(log n + k) интервалов, где k - число
+ * интервалов, начинающихся в [from - maxDuration, to). Длительности хранятся в отсортированном
+ * мультимножестве, и maxDuration уменьшается при удалении самого длинного интервала.
+ * Интервалы загружаются при первом поиске под {@link ReentrantLock}, а не под монитором,
+ * чтобы запрос к базе не закреплял виртуальный поток за потоком-носителем
+ */
+class ItemIntervals {
+    private static final Comparator<BusyInterval> ORDER = Comparator.comparing(BusyInterval::getStart)
+        .thenComparing(BusyInterval::getBookingId);
+
+    private final NavigableSet<BusyInterval> intervals = new TreeSet<>(ORDER);
+    private final Map<Long, BusyInterval> intervalsByBookingId = new HashMap<>();
+
+    /**
+     * Длительность -> количество интервалов такой длительности, последний ключ - самый длинный интервал
+     */
+    private final NavigableMap<Duration, Integer> durations = new TreeMap<>();
+
+    private final Lock lock = new ReentrantLock();
+    private boolean loaded;
+
+    /**
+     * Добавление и удаление идемпотентны, поэтому изменение, примененное до загрузки,
+     * не противоречит загруженным из базы интервалам
+     */
+    void add(BusyInterval interval) {
+        lock.lock();
+        try {
+            addInterval(interval);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(Long bookingId) {
+        lock.lock();
+        try {
+            removeInterval(bookingId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<TimeSlotDto> getFreeSlots(LocalDateTime from, LocalDateTime to, Supplier<List<BusyInterval>> loader) {
+        lock.lock();
+        try {
+            if (!loaded) {
+                loader.get().forEach(this::addInterval);
+                loaded = true;
+            }
+            return findFreeSlots(from, to);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Длительность самого длинного из текущих интервалов
+     */
+    Duration maxDuration() {
+        lock.lock();
+        try {
+            return durations.isEmpty() ? Duration.ZERO : durations.lastKey();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void addInterval(BusyInterval interval) {
+        removeInterval(interval.getBookingId());
+
+        intervals.add(interval);
+        intervalsByBookingId.put(interval.getBookingId(), interval);
+        durations.merge(duration(interval), 1, Integer::sum);
+    }
+
+    private void removeInterval(Long bookingId) {
+        BusyInterval interval = intervalsByBookingId.remove(bookingId);
+
+        if (interval != null) {
+            intervals.remove(interval);
+            durations.computeIfPresent(duration(interval), (duration, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private static Duration duration(BusyInterval interval) {
+        return Duration.between(interval.getStart(), interval.getEnd());
+    }
+
+    private List<TimeSlotDto> findFreeSlots(LocalDateTime from, LocalDateTime to) {
+        BusyInterval lowest = new BusyInterval(Long.MIN_VALUE, from.minus(maxDuration()), from);
+        BusyInterval highest = new BusyInterval(Long.MIN_VALUE, to, to);
+
+        List<TimeSlotDto> freeSlots = new ArrayList<>();
+        LocalDateTime cursor = from;
+
+        for (BusyInterval interval : intervals.subSet(lowest, true, highest, false)) {
+            if (!interval.getEnd().isAfter(cursor)) {
+                continue;
+            }
+
+            if (interval.getStart().isAfter(cursor)) {
+                freeSlots.add(new TimeSlotDto(cursor, interval.getStart()));
+            }
+
+            cursor = interval.getEnd();
+
+            if (!cursor.isBefore(to)) {
+                return freeSlots;
+            }
+        }
+
+        freeSlots.add(new TimeSlotDto(cursor, to));
+
+        return freeSlots;
+    }
+}
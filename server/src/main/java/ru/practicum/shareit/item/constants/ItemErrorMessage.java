@@ -8,4 +8,5 @@ public class ItemErrorMessage {
     public static final String UNAUTHORIZED = "Вещь с id: '%d', не принадлежит пользователю с id: '%d";
     public static final String COMMENT_ERROR =
         "Пользователь с id: '%d' не брал вещь с id: '%d' в аренду, либо аренда еще не завершена";
+    public static final String INVALID_PERIOD = "Начало периода должно быть раньше его окончания";
 }
@@ -4,6 +4,7 @@ import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.SearchableItem;
 import ru.practicum.shareit.user.dto.UserDTO;
 import ru.practicum.shareit.user.model.User;
 
@@ -25,6 +26,18 @@ public class ItemMapper {
             .build();
     }
 
+    public static ItemResponseDto toResponseDto(SearchableItem item, UserDTO userDTO) {
+        return ItemResponseDto.builder()
+            .id(item.getId())
+            .name(item.getName())
+            .description(item.getDescription())
+            .available(item.getAvailable())
+            .owner(userDTO)
+            .comments(new ArrayList<>())
+            .requestId(item.getRequestId())
+            .build();
+    }
+
     public static Item toItem(ItemRequestDto itemRequestDto, User owner) {
         return Item.builder()
             .description(itemRequestDto.getDescription())
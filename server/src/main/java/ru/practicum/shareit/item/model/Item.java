@@ -19,7 +19,8 @@ public class Item {
      * Уникальный идентификатор вещи
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -41,10 +42,10 @@ public class Item {
     private Boolean available;
 
     /**
-     * {@link User} - владелец вещи
+     * {@link User} - владелец вещи. Не меняется после создания, так как скопирован в bookings.owner_id
      */
     @ManyToOne
-    @JoinColumn(name = "owner_id")
+    @JoinColumn(name = "owner_id", updatable = false)
     private User owner;
 
     /**
@@ -52,7 +53,15 @@ public class Item {
      * Если вещь была создана по запросу другого пользователя, то в этом
      * поле будет храниться ссылка на соответствующий запрос
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "request_id")
+    @ToString.Exclude
     private ItemRequest request;
+
+    /**
+     * Версия записи для оптимистической блокировки и ETag, увеличивается при каждом изменении
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -1,13 +1,18 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.SearchableItem;
 
+import javax.persistence.LockModeType;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
@@ -15,8 +20,64 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findByRequestIdOrderByRequestCreatedAsc(Long id);
 
+    @EntityGraph(attributePaths = "owner")
     List<Item> findByOwnerIdOrderByIdAsc(Long id, Pageable pageable);
 
-    @Query("select i from Item i where (lower(i.name) like concat('%', lower(:text), '%') or lower(i.description) like concat('%', lower(:text), '%')) and i.available = true order by i.id")
-    List<Item> findAvailableItemsWithText(@Param("text") String text, Pageable pageable);
+    @EntityGraph(attributePaths = "owner")
+    Optional<Item> findWithOwnerById(Long id);
+
+    /**
+     * Загрузка вещи с блокировкой строки до конца транзакции (SELECT ... FOR UPDATE).
+     * Сериализует создание и подтверждение бронирований одной вещи, не затрагивая остальные
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findForUpdateById(Long id);
+
+    /**
+     * Пакетный вариант {@link #findForUpdateById(Long)}. Строки блокируются в порядке id,
+     * чтобы параллельные пакеты не взаимоблокировались
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in ?1 order by i.id")
+    List<Item> findAllForUpdateByIdIn(Collection<Long> ids);
+
+    @Query("select i.id as id, i.name as name, i.description as description, i.available as available," +
+        " i.owner.id as ownerId, i.request.id as requestId, i.version as version from Item i" +
+        " where (lower(i.name) like concat('%', lower(:text), '%') or lower(i.description) like concat('%', lower(:text), '%')) and i.available = true order by i.id")
+    List<SearchableItem> findAvailableItemsWithText(@Param("text") String text, Pageable pageable);
+
+    @Query(value = "select i.id as \"id\", i.name as \"name\", i.description as \"description\"," +
+        " i.is_available as \"available\", i.owner_id as \"ownerId\", i.request_id as \"requestId\"," +
+        " i.version as \"version\" from items i" +
+        " where i.is_available = true" +
+        " and i.search_vector @@ (to_tsquery('russian', :query) || to_tsquery('english', :query))" +
+        " order by ts_rank(i.search_vector, to_tsquery('russian', :query) || to_tsquery('english', :query)) desc," +
+        " i.id", nativeQuery = true)
+    List<SearchableItem> findAvailableItemsByFullText(@Param("query") String query, Pageable pageable);
+
+    @Query("select i.id as id, i.name as name, i.description as description, i.available as available," +
+        " i.owner.id as ownerId, i.request.id as requestId, i.version as version from Item i" +
+        " where i.id between ?1 and ?2 order by i.id")
+    List<SearchableItem> findSearchableItemsByIdBetween(Long fromId, Long toId);
+
+    /**
+     * Версия ответа с вещью для пользователя, не являющегося владельцем: версии вещи и владельца,
+     * количество и последний идентификатор комментариев и сумма версий их авторов через точку.
+     * Составляющие не складываются, чтобы изменения разных счетчиков не давали одну и ту же версию
+     */
+    @Query("select concat(str(i.version), '.', str(o.version), '.', str(count(c.id)), '.'," +
+        " str(coalesce(max(c.id), 0)), '.', str(coalesce(sum(a.version), 0))) from Item i join i.owner o" +
+        " left join Comment c on c.item = i left join c.author a" +
+        " where i.id = ?1 and o.id <> ?2 group by i.version, o.version")
+    Optional<String> findViewVersion(Long itemId, Long viewerId);
+
+    @Query("select i.id from Item i where i.id in ?1")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Query("select i.id from Item i where i.owner.id = ?1")
+    List<Long> findIdsByOwnerId(Long ownerId);
+
+    @Query("select max(i.id) from Item i")
+    Optional<Long> findMaxId();
 }
\ No newline at end of file
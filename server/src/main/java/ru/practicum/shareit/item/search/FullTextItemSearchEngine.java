@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Полнотекстовый поиск PostgreSQL: {@code tsvector} по названию и описанию со стеммингом
+ * для русского и английского языков, GIN индекс, поиск по префиксам слов и сортировка по релевантности.
+ * Требует PostgreSQL 12+
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "fulltext")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private static final String SCHEMA = "schema-fulltext.sql";
+    private static final Pattern DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ItemRepository itemRepository;
+    private final DataSource dataSource;
+
+    /**
+     * Создает вычисляемую колонку {@code items.search_vector} и индекс по ней
+     */
+    @PostConstruct
+    public void createSearchVector() {
+        new ResourceDatabasePopulator(new ClassPathResource(SCHEMA)).execute(dataSource);
+    }
+
+    @Override
+    public List<SearchableItem> searchAvailable(String text, Pageable pageable) {
+        String query = toTsQuery(text);
+
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        return itemRepository.findAvailableItemsByFullText(query, pageable);
+    }
+
+    /**
+     * Преобразует пользовательский текст в выражение {@code to_tsquery}: каждое слово
+     * ищется как префикс, все слова должны присутствовать
+     */
+    private static String toTsQuery(String text) {
+        return Arrays.stream(DELIMITER.split(text.toLowerCase(Locale.ROOT)))
+            .filter(token -> !token.isEmpty())
+            .map(token -> token + ":*")
+            .collect(Collectors.joining(" & "));
+    }
+}
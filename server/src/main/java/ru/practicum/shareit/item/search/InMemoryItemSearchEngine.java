@@ -0,0 +1,273 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Поиск по инвертированному индексу в памяти приложения. Слова запроса ищутся как префиксы слов
+ * названия и описания, все слова должны присутствовать.
+ * Источником данных остается {@link ItemRepository}: индекс строится при старте и обновляется
+ * после фиксации транзакций, изменивших вещи. Индекс хранит все поля, нужные для ответа,
+ * поэтому поиск не обращается к БД. Обработчики фиксации разных транзакций могут выполниться
+ * в другом порядке, поэтому снимок вещи применяется, только если его версия новее проиндексированной,
+ * а удаленные вещи больше не индексируются
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int REBUILD_CHUNK_SIZE = 10_000;
+    private static final Pattern DELIMITER = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Слово -> идентификаторы вещей, в названии или описании которых оно встречается
+     */
+    private final NavigableMap<String, LongPostingList> postings = new TreeMap<>();
+
+    /**
+     * Идентификатор вещи -> проиндексированный снимок, его слова нужны для удаления вещи из индекса
+     */
+    private final Map<Long, IndexedDocument> documents = new HashMap<>();
+
+    /**
+     * Идентификаторы доступных для аренды вещей
+     */
+    private final LongPostingList availableItems = new LongPostingList();
+
+    /**
+     * Идентификаторы удаленных вещей. Идентификаторы выдаются последовательностью и не переиспользуются,
+     * поэтому запоздавший снимок удаленной вещи можно отбросить
+     */
+    private final LongPostingList removedItems = new LongPostingList();
+
+    /**
+     * Построение индекса по всем вещам. Вещи читаются параллельно диапазонами идентификаторов
+     */
+    @PostConstruct
+    public void rebuild() {
+        long maxId = itemRepository.findMaxId().orElse(0L);
+        int chunks = (int) ((maxId + REBUILD_CHUNK_SIZE - 1) / REBUILD_CHUNK_SIZE);
+
+        List<List<IndexedDocument>> documents = IntStream.range(0, chunks).parallel()
+            .mapToObj(chunk -> itemRepository.findSearchableItemsByIdBetween(
+                    (long) chunk * REBUILD_CHUNK_SIZE + 1, (long) (chunk + 1) * REBUILD_CHUNK_SIZE
+                ).stream()
+                .map(IndexedDocument::of)
+                .collect(Collectors.toList()))
+            .collect(Collectors.toList());
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            availableItems.clear();
+            removedItems.clear();
+            documents.forEach(chunk -> chunk.forEach(this::apply));
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Item search index rebuilt: items={}, terms={}", documents.size(), postings.size());
+    }
+
+    @Override
+    public List<SearchableItem> searchAvailable(String text, Pageable pageable) {
+        String[] tokens = tokenize(text);
+
+        if (tokens.length == 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] matches = null;
+
+            for (String token : tokens) {
+                Collection<LongPostingList> lists =
+                    postings.subMap(token, true, token + Character.MAX_VALUE, false).values();
+
+                if (lists.isEmpty()) {
+                    return List.of();
+                }
+
+                long[] tokenMatches = LongPostingList.union(lists);
+                matches = Objects.isNull(matches) ? tokenMatches : LongPostingList.intersect(matches, tokenMatches);
+            }
+
+            matches = availableItems.retainContained(matches);
+
+            int from = (int) Math.min(pageable.getOffset(), matches.length);
+            int to = Math.min(from + pageable.getPageSize(), matches.length);
+
+            return Arrays.stream(matches, from, to).mapToObj(documents::get).collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Снимок строится после фиксации, когда у сущности уже новая версия
+     */
+    @Override
+    public void index(Item item) {
+        afterCommit(() -> {
+            IndexedDocument document = IndexedDocument.of(item);
+
+            lock.writeLock().lock();
+            try {
+                apply(document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removedItems.add(itemId);
+                removeDocument(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public void removeByOwner(Long ownerId) {
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(ownerId);
+
+        if (itemIds.isEmpty()) {
+            return;
+        }
+
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                itemIds.forEach(itemId -> {
+                    removedItems.add(itemId);
+                    removeDocument(itemId);
+                });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private void apply(IndexedDocument document) {
+        IndexedDocument current = documents.get(document.id);
+
+        if (removedItems.contains(document.id)
+            || (Objects.nonNull(current) && current.version >= document.version)) {
+            return;
+        }
+
+        removeDocument(document.id);
+
+        for (String term : document.terms) {
+            postings.computeIfAbsent(term, key -> new LongPostingList()).add(document.id);
+        }
+
+        documents.put(document.id, document);
+
+        if (document.available) {
+            availableItems.add(document.id);
+        }
+    }
+
+    private void removeDocument(long itemId) {
+        IndexedDocument document = documents.remove(itemId);
+
+        if (Objects.nonNull(document)) {
+            for (String term : document.terms) {
+                LongPostingList list = postings.get(term);
+                list.remove(itemId);
+
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        availableItems.remove(itemId);
+    }
+
+    /**
+     * Изменения индекса применяются только после фиксации транзакции,
+     * чтобы поиск не находил вещи из откаченных транзакций
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String[] tokenize(String text) {
+        return Arrays.stream(DELIMITER.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е')))
+            .filter(token -> !token.isEmpty())
+            .distinct()
+            .toArray(String[]::new);
+    }
+
+    /**
+     * Снимок индексируемых полей вещи, он же элемент результата поиска
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class IndexedDocument implements SearchableItem {
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Boolean available;
+        private final Long ownerId;
+        private final Long requestId;
+        private final Long version;
+        @Getter(AccessLevel.NONE)
+        private final String[] terms;
+
+        static IndexedDocument of(Item item) {
+            return new IndexedDocument(item.getId(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()), item.getOwner().getId(),
+                Objects.isNull(item.getRequest()) ? null : item.getRequest().getId(), item.getVersion(),
+                tokenize(item.getName() + " " + item.getDescription()));
+        }
+
+        static IndexedDocument of(SearchableItem item) {
+            return new IndexedDocument(item.getId(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()), item.getOwnerId(), item.getRequestId(), item.getVersion(),
+                tokenize(item.getName() + " " + item.getDescription()));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных для аренды вещей по тексту в названии и описании.
+ * Реализация выбирается свойством {@code shareit.search.engine}
+ */
+public interface ItemSearchEngine {
+    /**
+     * Поиск доступных вещей
+     *
+     * @param text     текст поискового запроса
+     * @param pageable параметры страницы
+     * @return найденные вещи, наиболее подходящие первыми
+     */
+    List<SearchableItem> searchAvailable(String text, Pageable pageable);
+
+    /**
+     * Обновление индекса после создания или изменения вещи.
+     * Движкам, которые ищут напрямую в БД, обновление не требуется
+     *
+     * @param item {@link Item}
+     */
+    default void index(Item item) {
+    }
+
+    /**
+     * Удаление вещи из индекса
+     *
+     * @param itemId уникальный идентификатор вещи
+     */
+    default void remove(Long itemId) {
+    }
+
+    /**
+     * Удаление из индекса всех вещей пользователя перед удалением самого пользователя,
+     * вещи в БД удаляются каскадно вместе с ним
+     *
+     * @param ownerId уникальный идентификатор владельца
+     */
+    default void removeByOwner(Long ownerId) {
+    }
+}
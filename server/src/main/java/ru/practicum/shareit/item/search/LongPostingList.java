@@ -0,0 +1,140 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Отсортированный по возрастанию список идентификаторов вещей без упаковки в {@link Long}
+ */
+class LongPostingList {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    void add(long id) {
+        if (size == 0 || ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size++] = id;
+            return;
+        }
+
+        int position = Arrays.binarySearch(ids, 0, size, id);
+
+        if (position >= 0) {
+            return;
+        }
+
+        int insertAt = -position - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+
+        if (position < 0) {
+            return;
+        }
+
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    void clear() {
+        ids = new long[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Оставляет из переданных идентификаторов только содержащиеся в списке
+     *
+     * @param candidates отсортированный массив идентификаторов
+     */
+    long[] retainContained(long[] candidates) {
+        long[] result = new long[candidates.length];
+        int length = 0;
+
+        for (long candidate : candidates) {
+            if (Arrays.binarySearch(ids, 0, size, candidate) >= 0) {
+                result[length++] = candidate;
+            }
+        }
+
+        return Arrays.copyOf(result, length);
+    }
+
+    /**
+     * Объединение нескольких списков
+     *
+     * @return отсортированный массив идентификаторов без повторов
+     */
+    static long[] union(Collection<LongPostingList> lists) {
+        if (lists.size() == 1) {
+            return lists.iterator().next().toArray();
+        }
+
+        long[] result = new long[lists.stream().mapToInt(list -> list.size).sum()];
+        int length = 0;
+
+        for (LongPostingList list : lists) {
+            System.arraycopy(list.ids, 0, result, length, list.size);
+            length += list.size;
+        }
+
+        Arrays.sort(result);
+
+        int unique = 0;
+        for (int i = 0; i < length; i++) {
+            if (unique == 0 || result[unique - 1] != result[i]) {
+                result[unique++] = result[i];
+            }
+        }
+
+        return Arrays.copyOf(result, unique);
+    }
+
+    /**
+     * Пересечение двух отсортированных массивов идентификаторов
+     */
+    static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int length = 0;
+        int i = 0;
+        int j = 0;
+
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[length++] = left[i];
+                i++;
+                j++;
+            }
+        }
+
+        return Arrays.copyOf(result, length);
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.search;
+
+/**
+ * Поля вещи, необходимые для построения поискового индекса и ответа на поисковый запрос.
+ * Владелец и запрос представлены идентификаторами, чтобы результат поиска не требовал загрузки сущностей
+ */
+public interface SearchableItem {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getOwnerId();
+
+    Long getRequestId();
+
+    Long getVersion();
+}
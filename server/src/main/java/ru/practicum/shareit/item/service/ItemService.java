@@ -3,10 +3,13 @@ package ru.practicum.shareit.item.service;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.comment.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemService {
     List<ItemResponseDto> getAllItems(Long userId, PageRequest pageRequest);
@@ -15,6 +18,8 @@ public interface ItemService {
 
     ItemResponseDto getItemById(Long itemId, Long requestUserId);
 
+    Optional<String> getItemETag(Long itemId, Long requestUserId);
+
     ItemResponseDto updateItem(Long itemId, Long userId, ItemRequestDto itemDTO);
 
     void deleteItem(Long userId, Long itemId);
@@ -22,4 +27,8 @@ public interface ItemService {
     List<ItemResponseDto> searchAvailableItemsByText(Long userId, String text, PageRequest pageRequest);
 
     CommentResponseDto addComment(Long userId, Long itemId, CommentRequestDto commentRequestDto);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemAvailabilityDto> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
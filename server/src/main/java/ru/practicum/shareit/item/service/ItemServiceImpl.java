@@ -5,33 +5,42 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.constants.BookingStatus;
+import ru.practicum.shareit.booking.dto.ItemBookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.comment.dto.CommentRequestDto;
 import ru.practicum.shareit.comment.dto.CommentResponseDto;
+import ru.practicum.shareit.comment.dto.ItemCommentDto;
 import ru.practicum.shareit.comment.mapper.CommentMapper;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.common.ETags;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.constants.ItemErrorMessage;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.SearchableItem;
 import ru.practicum.shareit.request.constants.ItemRequestErrorMessage;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.CachedUser;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.constants.UserErrorMessage;
 import ru.practicum.shareit.user.dto.UserDTO;
 import ru.practicum.shareit.user.mapper.UserMapper;
-import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,9 +51,12 @@ class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
 
 
     @Override
@@ -53,18 +65,14 @@ class ItemServiceImpl implements ItemService {
         List<Item> items = itemRepository.findByOwnerIdOrderByIdAsc(userId, pageRequest);
 
         Set<Long> ids = items.stream().map(Item::getId).collect(Collectors.toSet());
-        Map<Long, List<Booking>> lastBookings = getAllLastBookingsByItemId(ids, userDTO.getId());
-        Map<Long, List<Booking>> nextBookings = getAllNextBookingsByItemId(ids, userDTO.getId());
-        Map<Long, List<Comment>> comments = getAllCommentsByItemId(ids);
+        Map<Long, ItemBookingDto> lastBookings = getLastBookingsByItemId(ids, userDTO.getId());
+        Map<Long, ItemBookingDto> nextBookings = getNextBookingsByItemId(ids, userDTO.getId());
+        Map<Long, List<CommentResponseDto>> comments = getAllCommentsByItemId(ids);
 
         return items.stream().map(item -> {
             ItemResponseDto itemResponseDto = ItemMapper.toResponseDto(item, userDTO);
-            setBookingsToDTO(
-                Optional.ofNullable(lastBookings.get(item.getId())),
-                Optional.ofNullable(nextBookings.get(item.getId())),
-                itemResponseDto
-            );
-            setCommentsToDTO(Optional.ofNullable(comments.get(item.getId())), itemResponseDto);
+            setBookingsToDTO(lastBookings.get(item.getId()), nextBookings.get(item.getId()), itemResponseDto);
+            itemResponseDto.setComments(comments.getOrDefault(item.getId(), List.of()));
 
             return itemResponseDto;
         }).collect(Collectors.toList());
@@ -73,44 +81,51 @@ class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public ItemResponseDto saveItem(Long userId, ItemRequestDto itemRequestDto) {
-        User user = checkAndReturnUser(userId);
-        Item item = ItemMapper.toItem(itemRequestDto, user);
+        UserDTO owner = UserMapper.toDto(checkAndReturnUser(userId));
+        Item item = ItemMapper.toItem(itemRequestDto, userRepository.getReferenceById(userId));
 
         if (Objects.nonNull(itemRequestDto.getRequestId())) {
             ItemRequest request = checkAndReturnItemRequest(itemRequestDto.getRequestId());
             item.setRequest(request);
         }
 
-        return ItemMapper.toResponseDto(itemRepository.save(item), UserMapper.toDto(user));
+        Item savedItem = itemRepository.save(item);
+        itemSearchEngine.index(savedItem);
+
+        return ItemMapper.toResponseDto(savedItem, owner);
     }
 
     @Override
     public ItemResponseDto getItemById(Long itemId, Long requestUserId) {
-        Item item = checkAndReturnItem(itemId);
-
+        Item item = itemRepository.findWithOwnerById(itemId)
+            .orElseThrow(() -> new NotFoundException(String.format(ItemErrorMessage.NOT_FOUND, itemId)));
 
         Set<Long> itemIdSet = Set.of(itemId);
-        Map<Long, List<Booking>> lastBookings = getAllLastBookingsByItemId(itemIdSet, requestUserId);
-        Map<Long, List<Booking>> nextBookings = getAllNextBookingsByItemId(itemIdSet, requestUserId);
-        Map<Long, List<Comment>> comments = getAllCommentsByItemId(itemIdSet);
-
+        Map<Long, ItemBookingDto> lastBookings = getLastBookingsByItemId(itemIdSet, requestUserId);
+        Map<Long, ItemBookingDto> nextBookings = getNextBookingsByItemId(itemIdSet, requestUserId);
+        Map<Long, List<CommentResponseDto>> comments = getAllCommentsByItemId(itemIdSet);
 
         UserDTO ownerDTO = UserMapper.toDto(item.getOwner());
         ItemResponseDto itemResponseDto = ItemMapper.toResponseDto(item, ownerDTO);
-        setBookingsToDTO(
-            Optional.ofNullable(lastBookings.get(item.getId())),
-            Optional.ofNullable(nextBookings.get(item.getId())),
-            itemResponseDto
-        );
-        setCommentsToDTO(Optional.ofNullable(comments.get(item.getId())), itemResponseDto);
+        setBookingsToDTO(lastBookings.get(itemId), nextBookings.get(itemId), itemResponseDto);
+        itemResponseDto.setComments(comments.getOrDefault(itemId, List.of()));
 
         return itemResponseDto;
     }
 
+    /**
+     * ETag вычисляется только для просмотра чужой вещи: владелец видит последнее
+     * и следующее бронирование, которые зависят от текущего времени
+     */
+    @Override
+    public Optional<String> getItemETag(Long itemId, Long requestUserId) {
+        return itemRepository.findViewVersion(itemId, requestUserId).map(version -> ETags.of(itemId, version));
+    }
+
     @Override
     @Transactional
     public ItemResponseDto updateItem(Long itemId, Long userId, ItemRequestDto itemRequestDto) {
-        User user = checkAndReturnUser(userId);
+        CachedUser user = checkAndReturnUser(userId);
         Item item = checkAndReturnItem(itemId);
 
         checkOwner(userId, item);
@@ -118,6 +133,7 @@ class ItemServiceImpl implements ItemService {
         item.setName(Objects.requireNonNullElse(itemRequestDto.getName(), item.getName()));
         item.setDescription(Objects.requireNonNullElse(itemRequestDto.getDescription(), item.getDescription()));
         item.setAvailable(Objects.requireNonNullElse(itemRequestDto.getAvailable(), item.getAvailable()));
+        itemSearchEngine.index(item);
 
         return ItemMapper.toResponseDto(item, UserMapper.toDto(user));
     }
@@ -132,6 +148,8 @@ class ItemServiceImpl implements ItemService {
         checkOwner(userId, item);
 
         itemRepository.deleteById(itemId);
+        itemSearchEngine.remove(itemId);
+        itemAvailabilityIndex.evict(itemId);
     }
 
     @Override
@@ -140,21 +158,25 @@ class ItemServiceImpl implements ItemService {
             return new ArrayList<>();
         }
 
-        List<Item> items = itemRepository.findAvailableItemsWithText(text, pageRequest);
+        List<SearchableItem> items = itemSearchEngine.searchAvailable(text, pageRequest);
 
-        Set<Long> ids = items.stream().map(Item::getId).collect(Collectors.toSet());
-        Map<Long, List<Booking>> lastBookings = getAllLastBookingsByItemId(ids, userId);
-        Map<Long, List<Booking>> nextBookings = getAllNextBookingsByItemId(ids, userId);
+        Map<Long, CachedUser> owners =
+            userCache.findAll(items.stream().map(SearchableItem::getOwnerId).collect(Collectors.toSet()));
 
-        return items.stream().map(item -> {
-            UserDTO ownerDTO = UserMapper.toDto(item.getOwner());
+        // последнее и следующее бронирование видит только владелец
+        Set<Long> ownIds = items.stream()
+            .filter(item -> Objects.equals(item.getOwnerId(), userId))
+            .map(SearchableItem::getId)
+            .collect(Collectors.toSet());
+        Map<Long, ItemBookingDto> lastBookings = ownIds.isEmpty() ? Map.of() : getLastBookingsByItemId(ownIds, userId);
+        Map<Long, ItemBookingDto> nextBookings = ownIds.isEmpty() ? Map.of() : getNextBookingsByItemId(ownIds, userId);
+
+        // владелец мог быть удален вместе с вещами после поиска
+        return items.stream().filter(item -> owners.containsKey(item.getOwnerId())).map(item -> {
+            UserDTO ownerDTO = UserMapper.toDto(owners.get(item.getOwnerId()));
 
             ItemResponseDto itemResponseDto = ItemMapper.toResponseDto(item, ownerDTO);
-            setBookingsToDTO(
-                Optional.ofNullable(lastBookings.get(item.getId())),
-                Optional.ofNullable(nextBookings.get(item.getId())),
-                itemResponseDto
-            );
+            setBookingsToDTO(lastBookings.get(item.getId()), nextBookings.get(item.getId()), itemResponseDto);
 
             return itemResponseDto;
         }).collect(Collectors.toList());
@@ -163,7 +185,7 @@ class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public CommentResponseDto addComment(Long userId, Long itemId, CommentRequestDto commentRequestDto) {
-        User user = checkAndReturnUser(userId);
+        CachedUser user = checkAndReturnUser(userId);
         Item item = checkAndReturnItem(itemId);
 
         List<Booking> bookings =
@@ -178,12 +200,42 @@ class ItemServiceImpl implements ItemService {
 
         Comment comment = CommentMapper.toComment(commentRequestDto);
         comment.setItem(item);
-        comment.setAuthor(user);
+        comment.setAuthor(userRepository.getReferenceById(userId));
         comment.setCreated(LocalDateTime.now());
 
         return CommentMapper.toResponseDto(commentRepository.save(comment), UserMapper.toDto(user));
     }
 
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        checkPeriod(from, to);
+
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException(String.format(ItemErrorMessage.NOT_FOUND, itemId));
+        }
+
+        return new ItemAvailabilityDto(itemId, itemAvailabilityIndex.getFreeSlots(itemId, from, to));
+    }
+
+    /**
+     * Несуществующие вещи в ответ не попадают
+     */
+    @Override
+    public List<ItemAvailabilityDto> getAvailability(List<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        checkPeriod(from, to);
+
+        return itemRepository.findExistingIds(new HashSet<>(itemIds)).stream()
+            .sorted()
+            .map(itemId -> new ItemAvailabilityDto(itemId, itemAvailabilityIndex.getFreeSlots(itemId, from, to)))
+            .collect(Collectors.toList());
+    }
+
+    private void checkPeriod(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException(ItemErrorMessage.INVALID_PERIOD);
+        }
+    }
+
     /**
      * Проверка, что вещь принадлежит текущему пользователю
      *
@@ -196,8 +248,8 @@ class ItemServiceImpl implements ItemService {
         }
     }
 
-    private User checkAndReturnUser(Long userId) {
-        return userRepository.findById(userId)
+    private CachedUser checkAndReturnUser(Long userId) {
+        return userCache.find(userId)
             .orElseThrow(() -> new NotFoundException(String.format(UserErrorMessage.NOT_FOUND, userId)));
     }
 
@@ -213,43 +265,36 @@ class ItemServiceImpl implements ItemService {
 
 
     private void setBookingsToDTO(
-        Optional<List<Booking>> lastBookings, Optional<List<Booking>> nextBookings, ItemResponseDto itemResponseDto
+        ItemBookingDto lastBooking, ItemBookingDto nextBooking, ItemResponseDto itemResponseDto
     ) {
-
-        itemResponseDto
-            .setLastBooking(lastBookings.flatMap(bookings -> Optional.ofNullable(bookings.get(0))
-                    .map(value -> BookingMapper.toItemResponseDto(value, UserMapper.toDto(value.getBooker()))))
-                .orElse(null));
-
-        itemResponseDto
-            .setNextBooking(nextBookings.flatMap(bookings -> Optional.ofNullable(bookings.get(0))
-                    .map(value -> BookingMapper.toItemResponseDto(value, UserMapper.toDto(value.getBooker()))))
-                .orElse(null));
-    }
-
-    private void setCommentsToDTO(Optional<List<Comment>> listOfComments, ItemResponseDto itemResponseDto) {
-        itemResponseDto.setComments(
-            listOfComments.map(comments -> comments.stream()
-                .map(comment -> CommentMapper.toResponseDto(comment, UserMapper.toDto(comment.getAuthor())))
-                .collect(Collectors.toList())).orElse(List.of())
+        itemResponseDto.setLastBooking(
+            Optional.ofNullable(lastBooking).map(BookingMapper::toItemResponseDto).orElse(null)
+        );
+        itemResponseDto.setNextBooking(
+            Optional.ofNullable(nextBooking).map(BookingMapper::toItemResponseDto).orElse(null)
         );
     }
 
-    private Map<Long, List<Comment>> getAllCommentsByItemId(Set<Long> itemIds) {
-        return commentRepository.findByItemIdInOrderByCreatedAsc(itemIds).stream()
-            .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+    private Map<Long, List<CommentResponseDto>> getAllCommentsByItemId(Set<Long> itemIds) {
+        return commentRepository.findItemCommentsByItemIdIn(itemIds).stream()
+            .collect(Collectors.groupingBy(
+                ItemCommentDto::getItemId, Collectors.mapping(CommentMapper::toResponseDto, Collectors.toList())
+            ));
     }
 
-    private Map<Long, List<Booking>> getAllLastBookingsByItemId(Set<Long> itemIds, Long userId) {
-        return bookingRepository.findByItemIdAndOwnerIdAndStartDateLessThenNowInOrderByIdDesc(
-                itemIds, userId, LocalDateTime.now()).stream()
-            .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+    /**
+     * Последнее по дате начала бронирование каждой вещи среди начавшихся
+     */
+    private Map<Long, ItemBookingDto> getLastBookingsByItemId(Set<Long> itemIds, Long userId) {
+        return bookingRepository.findLastBookingsByItemIdsAndOwnerId(itemIds, userId, LocalDateTime.now()).stream()
+            .collect(Collectors.toMap(ItemBookingDto::getItemId, Function.identity(), (first, second) -> first));
     }
 
-    private Map<Long, List<Booking>> getAllNextBookingsByItemId(Set<Long> itemIds, Long userId) {
-        return bookingRepository.findByItemIdAndOwnerIdAndStartDateIsMoreThenNowInOrderByIdAsc(
-                itemIds, userId, LocalDateTime.now())
-            .stream()
-            .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+    /**
+     * Ближайшее по дате начала бронирование каждой вещи среди будущих
+     */
+    private Map<Long, ItemBookingDto> getNextBookingsByItemId(Set<Long> itemIds, Long userId) {
+        return bookingRepository.findNextBookingsByItemIdsAndOwnerId(itemIds, userId, LocalDateTime.now()).stream()
+            .collect(Collectors.toMap(ItemBookingDto::getItemId, Function.identity(), (first, second) -> first));
     }
 }
\ No newline at end of file
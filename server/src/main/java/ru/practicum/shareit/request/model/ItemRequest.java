@@ -19,7 +19,8 @@ public class ItemRequest {
      * Уникальный идентификатор запроса
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id;
     /**
      * Дата и время создания запроса
@@ -37,4 +38,11 @@ public class ItemRequest {
     @ManyToOne
     @JoinColumn(name = "requestor_id")
     private User requestor;
+
+    /**
+     * Версия записи для оптимистической блокировки и ETag, увеличивается при каждом изменении
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
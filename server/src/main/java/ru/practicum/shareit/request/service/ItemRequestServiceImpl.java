@@ -14,9 +14,10 @@ import ru.practicum.shareit.request.dto.ItemRequestResponseDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.cache.CachedUser;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.constants.UserErrorMessage;
 import ru.practicum.shareit.user.mapper.UserMapper;
-import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
@@ -34,11 +35,13 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final UserRepository userRepository;
 
+    private final UserCache userCache;
+
     private final ItemRepository itemRepository;
 
     @Override
     public List<ItemRequestResponseDto> getAllOwnRequests(long userId) {
-        User user = checkAndReturnUser(userId);
+        CachedUser user = checkAndReturnUser(userId);
         List<ItemRequest> itemRequests = itemRequestRepository.findByRequestorIdOrderByCreatedAsc(userId);
 
         Map<Long, List<ItemResponseDto>> itemsMap =
@@ -57,11 +60,11 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional
     public ItemRequestResponseDto createNewRequest(ItemRequestRequestDto itemRequestRequestDto, long userId) {
-        User user = checkAndReturnUser(userId);
+        CachedUser user = checkAndReturnUser(userId);
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestRequestDto);
 
         itemRequest.setCreated(LocalDateTime.now());
-        itemRequest.setRequestor(user);
+        itemRequest.setRequestor(userRepository.getReferenceById(userId));
 
         return ItemRequestMapper.toResponseDto(
             itemRequestRepository.save(itemRequest), UserMapper.toDto(user), new ArrayList<>()
@@ -97,8 +100,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         );
     }
 
-    private User checkAndReturnUser(long userId) {
-        return userRepository.findById(userId)
+    private CachedUser checkAndReturnUser(long userId) {
+        return userCache.find(userId)
             .orElseThrow(() -> new NotFoundException(String.format(UserErrorMessage.NOT_FOUND, userId)));
     }
 
@@ -3,10 +3,12 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDTO;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/users")
@@ -20,7 +22,13 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDTO getUserById(@PathVariable Long userId) {
+    public UserDTO getUserById(@PathVariable Long userId, WebRequest request) {
+        Optional<String> eTag = userService.getUserETag(userId);
+
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return null;
+        }
+
         return userService.getUserById(userId);
     }
 
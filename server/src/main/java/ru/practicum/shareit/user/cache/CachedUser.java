@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user.cache;
+
+import lombok.Value;
+
+/**
+ * Неизменяемый снимок пользователя для кэша {@link UserCache}. Сущность {@link ru.practicum.shareit.user.model.User}
+ * в кэш не кладется: общий для потоков экземпляр мог бы оказаться управляемым чужим контекстом
+ */
+@Value
+public class CachedUser {
+    Long id;
+    String name;
+    String email;
+    Long version;
+}
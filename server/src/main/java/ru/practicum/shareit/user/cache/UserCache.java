@@ -0,0 +1,108 @@
+package ru.practicum.shareit.user.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.constants.UserCacheNames;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш пользователей для проверки заголовка X-Sharer-User-Id.
+ * <p>
+ * Чтение, начатое до фиксации изменения пользователя, может вернуть из базы старое значение
+ * и положить его в кэш уже после удаления записи. Поэтому каждое удаление из кэша увеличивает
+ * счетчик инвалидаций, а загруженное значение остается в кэше, только если счетчик не изменился
+ * за время загрузки. Удаление выполняется сразу и еще раз после фиксации транзакции
+ */
+@Component
+public class UserCache {
+    private final UserRepository userRepository;
+    private final Cache cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserCache(UserRepository userRepository, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.cache = Objects.requireNonNull(cacheManager.getCache(UserCacheNames.USERS));
+    }
+
+    public Optional<CachedUser> find(Long userId) {
+        CachedUser cached = cache.get(userId, CachedUser.class);
+
+        if (Objects.nonNull(cached)) {
+            return Optional.of(cached);
+        }
+
+        long generation = invalidations.get();
+        Optional<CachedUser> loaded = userRepository.findSnapshotById(userId);
+        loaded.ifPresent(user -> put(user, generation));
+
+        return loaded;
+    }
+
+    /**
+     * Пользователи по идентификаторам. Отсутствующие в кэше загружаются одним запросом,
+     * несуществующие в результат не попадают
+     */
+    public Map<Long, CachedUser> findAll(Collection<Long> userIds) {
+        Map<Long, CachedUser> users = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+
+        for (Long userId : new HashSet<>(userIds)) {
+            CachedUser cached = cache.get(userId, CachedUser.class);
+
+            if (Objects.nonNull(cached)) {
+                users.put(userId, cached);
+            } else {
+                missing.add(userId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long generation = invalidations.get();
+
+            for (CachedUser user : userRepository.findSnapshotsByIdIn(missing)) {
+                put(user, generation);
+                users.put(user.getId(), user);
+            }
+        }
+
+        return users;
+    }
+
+    /**
+     * Удаление пользователя из кэша при изменении или удалении
+     */
+    public void evict(Long userId) {
+        invalidate(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long userId) {
+        invalidations.incrementAndGet();
+        cache.evict(userId);
+    }
+
+    /**
+     * Если за время загрузки кэш инвалидировался, значение могло устареть и убирается обратно
+     */
+    private void put(CachedUser user, long generation) {
+        cache.put(user.getId(), user);
+
+        if (invalidations.get() != generation) {
+            cache.evict(user.getId());
+        }
+    }
+}
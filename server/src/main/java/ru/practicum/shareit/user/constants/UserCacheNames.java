@@ -0,0 +1,8 @@
+package ru.practicum.shareit.user.constants;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class UserCacheNames {
+    public static final String USERS = "users";
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user.mapper;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.user.cache.CachedUser;
 import ru.practicum.shareit.user.dto.UserDTO;
 import ru.practicum.shareit.user.model.User;
 
@@ -14,6 +15,14 @@ public class UserMapper {
             .build();
     }
 
+    public static UserDTO toDto(CachedUser user) {
+        return UserDTO.builder()
+            .id(user.getId())
+            .name(user.getName())
+            .email(user.getEmail())
+            .build();
+    }
+
     public static User toUser(UserDTO userDTO) {
         return User.builder()
             .id(userDTO.getId())
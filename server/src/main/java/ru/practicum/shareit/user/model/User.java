@@ -1,10 +1,16 @@
 package ru.practicum.shareit.user.model;
 
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 
+/**
+ * Пользователи, на которых ссылаются загруженные вещи, бронирования и комментарии,
+ * догружаются пакетами по 50 вместо отдельного запроса на каждого
+ */
 @Entity
+@BatchSize(size = 50)
 @Builder
 @AllArgsConstructor
 @Setter
@@ -17,7 +23,8 @@ public class User {
      * Уникальный идентификатор пользователя
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Column(nullable = false, updatable = false)
     private Long id;
 
@@ -32,4 +39,11 @@ public class User {
      */
     @Column(nullable = false, unique = true, length = 512)
     private String email;
+
+    /**
+     * Версия записи для оптимистической блокировки и ETag, увеличивается при каждом изменении
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -1,8 +1,27 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.user.cache.CachedUser;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 
 public interface UserRepository extends JpaRepository<User, Long> {
-}
\ No newline at end of file
+    /**
+     * Снимок пользователя для {@link ru.practicum.shareit.user.cache.UserCache}, сущность не загружается
+     */
+    @Query("select new ru.practicum.shareit.user.cache.CachedUser(u.id, u.name, u.email, u.version)" +
+        " from User u where u.id = ?1")
+    Optional<CachedUser> findSnapshotById(Long id);
+
+    @Query("select new ru.practicum.shareit.user.cache.CachedUser(u.id, u.name, u.email, u.version)" +
+        " from User u where u.id in ?1")
+    List<CachedUser> findSnapshotsByIdIn(Collection<Long> ids);
+
+    @Query("select u.version from User u where u.id = ?1")
+    Optional<Long> findVersionById(Long id);
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.user.service;
 import ru.practicum.shareit.user.dto.UserDTO;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface UserService {
     List<UserDTO> getAllUsers();
@@ -11,6 +12,8 @@ public interface UserService {
 
     UserDTO getUserById(Long id);
 
+    Optional<String> getUserETag(Long userId);
+
     UserDTO updateUser(Long userId, UserDTO userDTO);
 
     void deleteUser(Long id);
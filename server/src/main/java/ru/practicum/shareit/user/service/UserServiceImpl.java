@@ -3,8 +3,12 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.ETags;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.user.cache.UserCache;
 import ru.practicum.shareit.user.constants.UserErrorMessage;
 import ru.practicum.shareit.user.dto.UserDTO;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -13,6 +17,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +27,9 @@ public
 class UserServiceImpl implements UserService {
 
     private final UserRepository repository;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final ItemSearchEngine itemSearchEngine;
+    private final UserCache userCache;
 
 
     @Override
@@ -45,10 +53,16 @@ class UserServiceImpl implements UserService {
         return UserMapper.toDto(findAndReturnUser(userId));
     }
 
+    @Override
+    public Optional<String> getUserETag(Long userId) {
+        return repository.findVersionById(userId).map(version -> ETags.of(userId, version));
+    }
+
     @Override
     @Transactional
     public UserDTO updateUser(Long userId, UserDTO userDTO) {
         User oldUser = findAndReturnUser(userId);
+        userCache.evict(userId);
 
         oldUser.setName(Objects.requireNonNullElse(userDTO.getName(), oldUser.getName()));
         oldUser.setEmail(Objects.requireNonNullElse(userDTO.getEmail(), oldUser.getEmail()));
@@ -59,7 +73,10 @@ class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void deleteUser(Long userId) {
+        userCache.evict(userId);
+        itemSearchEngine.removeByOwner(userId);
         repository.deleteById(userId);
+        itemAvailabilityIndex.evictAll();
     }
 
     private User findAndReturnUser(Long userId) {
@@ -0,0 +1,11 @@
+alter table items
+    add column if not exists search_vector tsvector
+        generated always as (
+            setweight(to_tsvector('russian', name), 'A') ||
+            setweight(to_tsvector('english', name), 'A') ||
+            setweight(to_tsvector('russian', description), 'B') ||
+            setweight(to_tsvector('english', description), 'B')
+        ) stored;
+
+create index if not exists items_search_vector_index
+    on items using gin (search_vector);
@@ -2,39 +2,61 @@ drop table if exists users cascade;
 drop table if exists items cascade;
 drop table if exists bookings;
 drop index if exists bookings_start_date_index;
+drop index if exists bookings_booker_id_start_date_id_index;
+drop index if exists bookings_item_id_start_date_id_index;
+drop index if exists bookings_booker_id_status_start_date_id_index;
+drop index if exists bookings_item_id_status_start_date_index;
+drop index if exists bookings_owner_id_start_date_id_index;
+drop index if exists bookings_owner_id_status_start_date_id_index;
+drop index if exists items_owner_id_id_index;
+drop index if exists comments_item_id_created_index;
 drop index if exists comments_created_index;
 drop table if exists requests;
 drop table if exists comments;
+drop sequence if exists users_seq;
+drop sequence if exists requests_seq;
+drop sequence if exists items_seq;
+drop sequence if exists bookings_seq;
+drop sequence if exists comments_seq;
 
 
+create sequence if not exists users_seq start with 1 increment by 50;
+
 create table if not exists users
 (
-    id    serial primary key,
-    name  varchar(255) not null,
-    email varchar(512) not null,
+    id      bigint primary key,
+    name    varchar(255) not null,
+    email   varchar(512) not null,
+    version bigint       not null default 0,
     constraint uq_user_email
         unique (email)
 
 );
 
+create sequence if not exists requests_seq start with 1 increment by 50;
+
 create table if not exists requests
 (
-    id           serial primary key,
+    id           bigint primary key,
     description  varchar(512) not null,
     requestor_id bigint       not null,
     created      timestamp    not null,
+    version      bigint       not null default 0,
     constraint requests_users_id_fk
         foreign key (requestor_id) references users
 );
 
+create sequence if not exists items_seq start with 1 increment by 50;
+
 create table if not exists items
 (
-    id           serial primary key,
+    id           bigint primary key,
     name         varchar(255) not null,
     description  varchar(512) not null,
     is_available boolean      not null,
     owner_id     bigint       not null,
     request_id   bigint,
+    version      bigint       not null default 0,
     constraint items_users_id_fk
         foreign key (owner_id) references users on delete cascade,
     constraint items_requests_id_fk
@@ -42,26 +64,55 @@ create table if not exists items
             on delete cascade
 );
 
+create index if not exists items_owner_id_id_index
+    on items (owner_id, id);
+
+create sequence if not exists bookings_seq start with 1 increment by 50;
+
 create table if not exists bookings
 (
-    id         serial primary key,
+    id         bigint primary key,
     start_date timestamp not null,
     end_date   timestamp not null,
     item_id    bigint    not null,
     booker_id  bigint    not null,
+    owner_id   bigint    not null,
     status     varchar   not null,
+    version    bigint    not null default 0,
     constraint bookings_items_id_fk
         foreign key (item_id) references items on delete cascade,
     constraint bookings_users_id_fk
-        foreign key (booker_id) references users on delete cascade
+        foreign key (booker_id) references users on delete cascade,
+    constraint bookings_owners_id_fk
+        foreign key (owner_id) references users on delete cascade
 );
 
 create index if not exists bookings_start_date_index
     on bookings (start_date);
 
+create index if not exists bookings_booker_id_start_date_id_index
+    on bookings (booker_id, start_date desc, id desc);
+
+create index if not exists bookings_item_id_start_date_id_index
+    on bookings (item_id, start_date desc, id desc);
+
+create index if not exists bookings_booker_id_status_start_date_id_index
+    on bookings (booker_id, status, start_date desc, id desc);
+
+create index if not exists bookings_item_id_status_start_date_index
+    on bookings (item_id, status, start_date);
+
+create index if not exists bookings_owner_id_start_date_id_index
+    on bookings (owner_id, start_date desc, id desc);
+
+create index if not exists bookings_owner_id_status_start_date_id_index
+    on bookings (owner_id, status, start_date desc, id desc);
+
+create sequence if not exists comments_seq start with 1 increment by 50;
+
 create table if not exists comments
 (
-    id        serial primary key,
+    id        bigint primary key,
     text      varchar(512) not null,
     item_id   bigint       not null,
     author_id bigint       not null,
@@ -75,3 +126,6 @@ create table if not exists comments
 create index if not exists comments_created_index
     on comments (created);
 
+create index if not exists comments_item_id_created_index
+    on comments (item_id, created);
+
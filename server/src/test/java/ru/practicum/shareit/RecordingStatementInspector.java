@@ -0,0 +1,28 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запоминает текст выражений, которые готовит Hibernate. Подключается в тестах свойством
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector, Hibernate создает его сам
+ */
+public class RecordingStatementInspector implements StatementInspector {
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    public static synchronized List<String> drain() {
+        List<String> statements = new ArrayList<>(STATEMENTS);
+        STATEMENTS.clear();
+        return statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (RecordingStatementInspector.class) {
+            STATEMENTS.add(sql);
+        }
+        return sql;
+    }
+}
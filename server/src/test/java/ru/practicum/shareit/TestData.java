@@ -0,0 +1,75 @@
+package ru.practicum.shareit;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Objects;
+
+/**
+ * Заполнение базы H2 профиля test напрямую через SQL, без сервисов и кэшей приложения.
+ * Идентификаторы задаются явно, последовательности после заполнения сдвигаются за ними
+ */
+@UtilityClass
+public class TestData {
+    private static final String[] TABLES = {"comments", "bookings", "items", "requests", "users"};
+
+    /**
+     * Очистка таблиц и кэша пользователей, который иначе вернет удаленных пользователей
+     */
+    public static void clear(JdbcTemplate jdbcTemplate, CacheManager cacheManager) {
+        for (String table : TABLES) {
+            jdbcTemplate.update("delete from " + table);
+        }
+
+        cacheManager.getCacheNames().forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+    }
+
+    /**
+     * Пользователи 1..users, вещи 1..items с владельцем (item % users) + 1
+     */
+    public static void insertUsersAndItems(JdbcTemplate jdbcTemplate, int users, int items) {
+        jdbcTemplate.update("insert into users (id, name, email) "
+            + "select x, 'user' || x, 'user' || x || '@mail.ru' from system_range(1, ?)", users);
+        jdbcTemplate.update("insert into items (id, name, description, is_available, owner_id) "
+            + "select x, 'item' || x, 'description' || x, true, mod(x, ?) + 1 from system_range(1, ?)", users, items);
+        restartSequences(jdbcTemplate);
+    }
+
+    /**
+     * Для каждой вещи bookingsPerItem бронирований по одному дню с шагом в два дня так,
+     * что у вещи есть прошедшие, текущее и будущие бронирования во всех статусах.
+     * Арендатор никогда не совпадает с владельцем вещи
+     */
+    public static void insertBookings(JdbcTemplate jdbcTemplate, int users, int items, int bookingsPerItem) {
+        int half = bookingsPerItem / 2;
+
+        jdbcTemplate.update("insert into bookings (id, start_date, end_date, item_id, booker_id, owner_id, status) "
+                + "select (i.x - 1) * ? + k.x, "
+                + "dateadd('HOUR', (k.x - ?) * 48 - 12, localtimestamp), "
+                + "dateadd('HOUR', (k.x - ?) * 48 + 12, localtimestamp), "
+                + "i.x, mod(i.x + 1 + mod(k.x, ? - 1), ?) + 1, mod(i.x, ?) + 1, "
+                + "case mod(k.x, 3) when 0 then 'WAITING' when 1 then 'APPROVED' else 'REJECTED' end "
+                + "from system_range(1, ?) i cross join system_range(1, ?) k",
+            bookingsPerItem, half, half, users, users, users, items, bookingsPerItem);
+        restartSequences(jdbcTemplate);
+    }
+
+    /**
+     * Комментарии к каждой вещи от разных авторов
+     */
+    public static void insertComments(JdbcTemplate jdbcTemplate, int users, int items, int commentsPerItem) {
+        jdbcTemplate.update("insert into comments (id, text, item_id, author_id, created) "
+                + "select (i.x - 1) * ? + k.x, 'comment' || k.x, i.x, mod(i.x + k.x, ?) + 1, localtimestamp "
+                + "from system_range(1, ?) i cross join system_range(1, ?) k",
+            commentsPerItem, users, items, commentsPerItem);
+        restartSequences(jdbcTemplate);
+    }
+
+    private static void restartSequences(JdbcTemplate jdbcTemplate) {
+        for (String table : TABLES) {
+            Long max = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+            jdbcTemplate.execute("alter sequence " + table + "_seq restart with " + (max + 100));
+        }
+    }
+}
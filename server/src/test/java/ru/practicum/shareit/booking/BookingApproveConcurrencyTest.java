@@ -0,0 +1,239 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.constant.CustomHeaders;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Одновременное подтверждение пересекающихся бронирований одной вещи из нескольких потоков.
+ * Блокировка строки вещи сериализует подтверждения: первое проходит, остальные видят
+ * подтвержденное бронирование и получают 409.
+ * <p>
+ * Цена блокировки измеряется отдельно: создание и подтверждение непересекающихся бронирований
+ * одной вещи из нескольких потоков с блокировкой строки и без нее. Без блокировки вещь
+ * читается обычным findById, результат пишется в журнал теста
+ */
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BookingApproveConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final long ITEM_ID = 1;
+
+    /**
+     * Владелец вещи 1 при THREADS + 1 пользователях, см. {@link TestData#insertUsersAndItems}
+     */
+    private static final long OWNER_ID = 2;
+
+    private static final int WARMUP_OPERATIONS = 80;
+    private static final int MEASURED_OPERATIONS = 400;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @SpyBean
+    private ItemRepository itemRepository;
+
+    /**
+     * Смещение дат бронирований, чтобы бронирования разных прогонов не пересекались
+     */
+    private final AtomicInteger slot = new AtomicInteger();
+
+    @BeforeEach
+    void seed() {
+        TestData.clear(jdbcTemplate, cacheManager);
+        TestData.insertUsersAndItems(jdbcTemplate, THREADS + 1, 1);
+
+        long bookingId = 1;
+
+        for (long bookerId = 1; bookerId <= THREADS + 1; bookerId++) {
+            if (bookerId == OWNER_ID) {
+                continue;
+            }
+
+            jdbcTemplate.update("insert into bookings (id, start_date, end_date, item_id, booker_id, owner_id, status) "
+                    + "values (?, dateadd('DAY', 1, localtimestamp), dateadd('DAY', 3, localtimestamp), ?, ?, ?, "
+                    + "'WAITING')",
+                bookingId++, ITEM_ID, bookerId, OWNER_ID);
+        }
+    }
+
+    @Test
+    void onlyOneOfOverlappingBookingsIsApproved() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+
+        try {
+            for (long bookingId = 1; bookingId <= THREADS; bookingId++) {
+                long id = bookingId;
+
+                statuses.add(executor.submit(() -> {
+                    start.await();
+
+                    return mockMvc.perform(patch("/bookings/{bookingId}", id)
+                            .header(CustomHeaders.USER_ID_HEADER, OWNER_ID)
+                            .param("approved", "true"))
+                        .andReturn()
+                        .getResponse()
+                        .getStatus();
+                }));
+            }
+
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+
+            for (Future<Integer> status : statuses) {
+                results.add(status.get());
+            }
+
+            Map<Integer, Long> byStatus = results.stream()
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+            assertEquals(Map.of(200, 1L, 409, (long) THREADS - 1), byStatus, "response statuses");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "select count(*) from bookings where item_id = ? and status = 'APPROVED'", Integer.class, ITEM_ID));
+        assertEquals(THREADS - 1, jdbcTemplate.queryForObject(
+            "select count(*) from bookings where item_id = ? and status = 'WAITING'", Integer.class, ITEM_ID));
+    }
+
+    /**
+     * Прогоны чередуются в порядке ABBA, чтобы прогрев JIT не давал преимущества второму режиму
+     */
+    @Test
+    void lockedAndUnlockedThroughputOnOneItem() throws Exception {
+        runCreateAndApprove(true, WARMUP_OPERATIONS);
+
+        double locked = runCreateAndApprove(true, MEASURED_OPERATIONS);
+        double unlocked = runCreateAndApprove(false, MEASURED_OPERATIONS);
+
+        unlocked += runCreateAndApprove(false, MEASURED_OPERATIONS);
+        locked += runCreateAndApprove(true, MEASURED_OPERATIONS);
+
+        log.info("Создание и подтверждение бронирования одной вещи в {} потоков, операций в секунду: "
+            + "с блокировкой {}, без блокировки {}", THREADS, String.format("%.0f", locked / 2),
+            String.format("%.0f", unlocked / 2));
+
+        assertEquals(WARMUP_OPERATIONS + 4 * MEASURED_OPERATIONS, jdbcTemplate.queryForObject(
+            "select count(*) from bookings where item_id = ? and status = 'APPROVED'", Integer.class, ITEM_ID));
+    }
+
+    /**
+     * Операция - создание бронирования на свободный час и его подтверждение владельцем.
+     * Возвращает число операций в секунду
+     */
+    private double runCreateAndApprove(boolean locked, int operations) throws Exception {
+        reset(itemRepository);
+
+        if (!locked) {
+            doAnswer(invocation -> itemRepository.findById(invocation.getArgument(0)))
+                .when(itemRepository).findForUpdateById(any());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                long bookerId = thread + 1 < OWNER_ID ? thread + 1 : thread + 2;
+
+                results.add(executor.submit(() -> {
+                    start.await();
+
+                    for (int i = 0; i < operations / THREADS; i++) {
+                        createAndApprove(bookerId);
+                    }
+
+                    return null;
+                }));
+            }
+
+            long startTime = System.nanoTime();
+            start.countDown();
+
+            for (Future<?> result : results) {
+                result.get();
+            }
+
+            return operations * 1e9 / (System.nanoTime() - startTime);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void createAndApprove(long bookerId) throws Exception {
+        LocalDateTime startDate = LocalDateTime.now().plusDays(10).plusHours(slot.getAndIncrement());
+        BookingRequestDto request = BookingRequestDto.builder()
+            .itemId(ITEM_ID)
+            .start(startDate)
+            .end(startDate.plusMinutes(30))
+            .build();
+
+        String created = mockMvc.perform(post("/bookings")
+                .header(CustomHeaders.USER_ID_HEADER, bookerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        long bookingId = objectMapper.readTree(created).get("id").asLong();
+
+        int status = mockMvc.perform(patch("/bookings/{bookingId}", bookingId)
+                .header(CustomHeaders.USER_ID_HEADER, OWNER_ID)
+                .param("approved", "true"))
+            .andReturn()
+            .getResponse()
+            .getStatus();
+
+        assertEquals(200, status, "approve booking " + bookingId);
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.constants.BookingState;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.AppPageRequest;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Количество выражений SQL на страницу бронирований для всех состояний, арендатора и владельца,
+ * постранично по смещению и по ключу. Бронирования страницы относятся к разным вещам, арендаторам
+ * и владельцам, поэтому ленивая загрузка связей дала бы выражение на каждую строку
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingQueryCountTest {
+    private static final int USERS = 50;
+    private static final int ITEMS = 500;
+    private static final int BOOKINGS_PER_ITEM = 20;
+    private static final int PAGE_SIZE = 10;
+    private static final long USER_ID = 1;
+
+    /**
+     * Проверка пользователя при пустом кэше и сама страница вместе с вещами, арендаторами и владельцами
+     */
+    private static final long STATEMENTS_PER_PAGE = 2;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertTrue(statistics.isStatisticsEnabled(), "hibernate statistics");
+
+        TestData.clear(jdbcTemplate, cacheManager);
+        TestData.insertUsersAndItems(jdbcTemplate, USERS, ITEMS);
+        TestData.insertBookings(jdbcTemplate, USERS, ITEMS, BOOKINGS_PER_ITEM);
+    }
+
+    @Test
+    void bookingPagesUseFixedNumberOfStatements() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.now().plusYears(1), Long.MAX_VALUE);
+        Map<String, Long> unexpected = new TreeMap<>();
+
+        for (BookingState state : BookingState.values()) {
+            count(unexpected, state + " booker offset",
+                () -> bookingService.getBookings(state, USER_ID, new AppPageRequest(0, PAGE_SIZE)));
+            count(unexpected, state + " owner offset",
+                () -> bookingService.getOwnerBookings(state, USER_ID, new AppPageRequest(0, PAGE_SIZE)));
+            count(unexpected, state + " booker cursor",
+                () -> bookingService.getBookings(state, USER_ID, cursor, PAGE_SIZE));
+            count(unexpected, state + " owner cursor",
+                () -> bookingService.getOwnerBookings(state, USER_ID, cursor, PAGE_SIZE));
+        }
+
+        assertTrue(unexpected.isEmpty(), () -> "prepared statements per page other than "
+            + STATEMENTS_PER_PAGE + ": " + unexpected);
+    }
+
+    /**
+     * Кэш пользователей очищается перед каждой страницей, чтобы проверка пользователя
+     * всегда стоила одного выражения
+     */
+    private void count(Map<String, Long> unexpected, String name, Supplier<List<BookingResponseDto>> page) {
+        cacheManager.getCacheNames().forEach(cache -> Objects.requireNonNull(cacheManager.getCache(cache)).clear());
+        statistics.clear();
+
+        List<BookingResponseDto> bookings = page.get();
+
+        assertEquals(PAGE_SIZE, bookings.size(), name + " page size");
+
+        long statements = statistics.getPrepareStatementCount();
+
+        if (statements != STATEMENTS_PER_PAGE) {
+            unexpected.put(name, statements);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.RecordingStatementInspector;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.constants.BookingState;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.AppPageRequest;
+
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Планы запросов бронирований по состояниям для арендатора и владельца, постранично по смещению
+ * и по ключу, на заполненной базе. Выражения берутся у Hibernate, для каждого выполняется EXPLAIN
+ * и проверяется, что таблица bookings читается по индексу, а не полным просмотром.
+ * <p>
+ * H2 не поддерживает EXPLAIN (ANALYZE, BUFFERS) PostgreSQL, поэтому проверяется план H2
+ * на той же схеме: tableScan в плане означает, что подходящего индекса нет
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+    + "ru.practicum.shareit.RecordingStatementInspector")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingQueryPlanTest {
+    private static final int USERS = 50;
+    private static final int ITEMS = 500;
+    private static final int BOOKINGS_PER_ITEM = 20;
+    private static final int PAGE_SIZE = 10;
+    private static final long USER_ID = 1;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeAll
+    void seed() {
+        TestData.clear(jdbcTemplate, cacheManager);
+        TestData.insertUsersAndItems(jdbcTemplate, USERS, ITEMS);
+        TestData.insertBookings(jdbcTemplate, USERS, ITEMS, BOOKINGS_PER_ITEM);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @Test
+    void bookingStateQueriesUseIndexes() {
+        Set<String> statements = new LinkedHashSet<>();
+        BookingCursor cursor = new BookingCursor(LocalDateTime.now().plusYears(1), Long.MAX_VALUE);
+
+        for (BookingState state : BookingState.values()) {
+            RecordingStatementInspector.drain();
+
+            bookingService.getBookings(state, USER_ID, new AppPageRequest(0, PAGE_SIZE));
+            bookingService.getOwnerBookings(state, USER_ID, new AppPageRequest(0, PAGE_SIZE));
+            bookingService.getBookings(state, USER_ID, cursor, PAGE_SIZE);
+            bookingService.getOwnerBookings(state, USER_ID, cursor, PAGE_SIZE);
+
+            RecordingStatementInspector.drain().stream()
+                .filter(sql -> sql.toLowerCase().contains("from bookings"))
+                .forEach(statements::add);
+        }
+
+        // WAITING и REJECTED выполняют один запрос с разным статусом: 5 запросов на каждое из четырех сочетаний
+        assertEquals(20, statements.size(), "distinct booking listing queries");
+
+        List<String> fullScans = new ArrayList<>();
+
+        for (String sql : statements) {
+            String plan = explain(sql);
+
+            if (plan.contains("PUBLIC.BOOKINGS.tableScan")) {
+                fullScans.add(sql + "\n" + plan);
+            }
+        }
+
+        assertTrue(fullScans.isEmpty(), () -> "queries scan bookings without an index:\n"
+            + fullScans.stream().collect(Collectors.joining("\n\n")));
+    }
+
+    /**
+     * Параметры выражения заполняются значениями подходящего типа, от них план H2 не зависит
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                ParameterMetaData metaData = statement.getParameterMetaData();
+
+                for (int i = 1; i <= metaData.getParameterCount(); i++) {
+                    bind(statement, i, metaData.getParameterType(i));
+                }
+
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    private static void bind(PreparedStatement statement, int index, int type) throws SQLException {
+        switch (type) {
+            case Types.BIGINT:
+                statement.setLong(index, USER_ID);
+                break;
+            case Types.INTEGER:
+                statement.setInt(index, PAGE_SIZE);
+                break;
+            case Types.TIMESTAMP:
+                statement.setTimestamp(index, Timestamp.valueOf(LocalDateTime.now()));
+                break;
+            default:
+                statement.setString(index, "WAITING");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.common.AppPageRequest;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Количество выражений SQL при чтении вещей не зависит от числа вещей, бронирований,
+ * комментариев и их авторов. Выражения считает статистика Hibernate
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ItemQueryCountTest {
+    private static final long OWNER_ID = 1;
+    private static final int BOOKINGS_PER_ITEM = 4;
+    private static final int COMMENTS_PER_ITEM = 3;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertTrue(statistics.isStatisticsEnabled(), "hibernate statistics");
+    }
+
+    @Test
+    void ownerItemsAreLoadedWithConstantNumberOfStatements() {
+        Map<Integer, Long> statements = new LinkedHashMap<>();
+
+        for (int size : new int[]{2, 10, 50}) {
+            seed(size);
+
+            statistics.clear();
+            List<ItemResponseDto> items = itemService.getAllItems(OWNER_ID, new AppPageRequest(0, size));
+
+            assertEquals(size, items.size(), "owner items");
+            statements.put(size, statistics.getPrepareStatementCount());
+        }
+
+        assertConstant(statements);
+    }
+
+    @Test
+    void itemIsLoadedWithConstantNumberOfStatements() {
+        Map<Integer, Long> statements = new LinkedHashMap<>();
+
+        for (int size : new int[]{2, 10, 50}) {
+            seed(size);
+
+            statistics.clear();
+            ItemResponseDto item = itemService.getItemById((long) size, OWNER_ID);
+
+            assertEquals(COMMENTS_PER_ITEM, item.getComments().size(), "item comments");
+            statements.put(size, statistics.getPrepareStatementCount());
+        }
+
+        assertConstant(statements);
+    }
+
+    /**
+     * size пользователей и size * size вещей, у владельца OWNER_ID ровно size вещей, в том числе вещь size.
+     * Вместе с вещами растет и число разных арендаторов и авторов комментариев
+     */
+    private void seed(int size) {
+        TestData.clear(jdbcTemplate, cacheManager);
+        TestData.insertUsersAndItems(jdbcTemplate, size, size * size);
+        TestData.insertBookings(jdbcTemplate, size, size * size, BOOKINGS_PER_ITEM);
+        TestData.insertComments(jdbcTemplate, size, size * size, COMMENTS_PER_ITEM);
+    }
+
+    private static void assertConstant(Map<Integer, Long> statements) {
+        long first = statements.values().iterator().next();
+
+        statements.forEach((size, count) ->
+            assertEquals(first, count, () -> "prepared statements by data size: " + statements));
+    }
+}
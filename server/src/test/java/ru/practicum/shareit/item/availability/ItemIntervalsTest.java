@@ -0,0 +1,165 @@
+package ru.practicum.shareit.item.availability;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ItemIntervalsTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final ItemIntervals intervals = new ItemIntervals();
+
+    @Test
+    void emptyItemIsFreeForWholeWindow() {
+        assertEquals(List.of(slot(0, 24)), freeSlots(0, 24, List.of()));
+    }
+
+    @Test
+    void freeSlotsAreGapsBetweenBusyIntervals() {
+        List<BusyInterval> busy = List.of(interval(1, 2, 4), interval(2, 10, 12));
+
+        assertEquals(List.of(slot(0, 2), slot(4, 10), slot(12, 24)), freeSlots(0, 24, busy));
+    }
+
+    @Test
+    void adjacentIntervalsLeaveNoGap() {
+        List<BusyInterval> busy = List.of(interval(1, 2, 4), interval(2, 4, 6));
+
+        assertEquals(List.of(slot(0, 2), slot(6, 24)), freeSlots(0, 24, busy));
+    }
+
+    @Test
+    void overlappingIntervalsAreMerged() {
+        List<BusyInterval> busy = List.of(interval(1, 2, 6), interval(2, 4, 8));
+
+        assertEquals(List.of(slot(0, 2), slot(8, 24)), freeSlots(0, 24, busy));
+    }
+
+    @Test
+    void enclosedIntervalDoesNotMoveCursorBack() {
+        List<BusyInterval> busy = List.of(interval(1, 2, 20), interval(2, 4, 6));
+
+        assertEquals(List.of(slot(0, 2), slot(20, 24)), freeSlots(0, 24, busy));
+    }
+
+    @Test
+    void intervalStartedBeforeWindowIsFound() {
+        List<BusyInterval> busy = List.of(interval(1, -48, 6), interval(2, -2, -1));
+
+        assertEquals(List.of(slot(6, 24)), freeSlots(0, 24, busy));
+    }
+
+    @Test
+    void windowInsideBusyIntervalHasNoFreeSlots() {
+        List<BusyInterval> busy = List.of(interval(1, 0, 24));
+
+        assertEquals(List.of(), freeSlots(2, 10, busy));
+    }
+
+    @Test
+    void intervalsOutsideWindowAreIgnored() {
+        List<BusyInterval> busy = List.of(interval(1, -10, -5), interval(2, 30, 40), interval(3, 0, 2));
+
+        assertEquals(List.of(slot(2, 24)), freeSlots(0, 24, busy));
+    }
+
+    @Test
+    void addAndRemoveAreIdempotent() {
+        freeSlots(0, 24, List.of());
+
+        intervals.add(interval(1, 2, 4));
+        intervals.add(interval(1, 2, 4));
+        assertEquals(List.of(slot(0, 2), slot(4, 24)), freeSlots(0, 24, List.of()));
+
+        intervals.add(interval(1, 6, 8));
+        assertEquals(List.of(slot(0, 6), slot(8, 24)), freeSlots(0, 24, List.of()), "moved booking");
+
+        intervals.remove(1L);
+        intervals.remove(1L);
+        intervals.remove(42L);
+        assertEquals(List.of(slot(0, 24)), freeSlots(0, 24, List.of()));
+    }
+
+    @Test
+    void maxDurationShrinksWhenLongestIntervalIsRemoved() {
+        freeSlots(0, 24, List.of(interval(1, 0, 100), interval(2, 0, 10), interval(3, 20, 30)));
+
+        assertEquals(Duration.ofHours(100), intervals.maxDuration());
+
+        intervals.remove(1L);
+        assertEquals(Duration.ofHours(10), intervals.maxDuration());
+
+        intervals.remove(2L);
+        assertEquals(Duration.ofHours(10), intervals.maxDuration(), "same duration of booking 3");
+
+        intervals.remove(3L);
+        assertEquals(Duration.ZERO, intervals.maxDuration());
+    }
+
+    @Test
+    void updateBeforeLoadIsConsistentWithLoadedIntervals() {
+        intervals.add(interval(1, 2, 4));
+        intervals.remove(2L);
+
+        List<BusyInterval> loaded = List.of(interval(1, 2, 4), interval(3, 10, 12));
+
+        assertEquals(List.of(slot(0, 2), slot(4, 10), slot(12, 24)), freeSlots(0, 24, loaded));
+    }
+
+    /**
+     * Изменение, зафиксированное во время загрузки, ждет ее окончания и применяется поверх
+     * прочитанного из базы, даже если загрузка успела прочитать прежнее состояние
+     */
+    @Test
+    void updateDuringLoadIsAppliedAfterLoad() throws Exception {
+        CompletableFuture<Void> rejected = new CompletableFuture<>();
+
+        List<TimeSlotDto> duringLoad = intervals.getFreeSlots(at(0), at(24), () -> {
+            rejected.completeAsync(() -> {
+                intervals.remove(1L);
+                return null;
+            });
+
+            assertFalse(awaitQuietly(rejected), "update must wait for the load");
+            return List.of(interval(1, 2, 4));
+        });
+
+        rejected.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(slot(0, 2), slot(4, 24)), duringLoad);
+        assertEquals(List.of(slot(0, 24)), freeSlots(0, 24, List.of()));
+    }
+
+    private List<TimeSlotDto> freeSlots(int fromHour, int toHour, List<BusyInterval> loaded) {
+        return intervals.getFreeSlots(at(fromHour), at(toHour), () -> loaded);
+    }
+
+    private static boolean awaitQuietly(CompletableFuture<Void> future) {
+        try {
+            future.get(200, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static BusyInterval interval(long bookingId, int startHour, int endHour) {
+        return new BusyInterval(bookingId, at(startHour), at(endHour));
+    }
+
+    private static TimeSlotDto slot(int startHour, int endHour) {
+        return new TimeSlotDto(at(startHour), at(endHour));
+    }
+
+    private static LocalDateTime at(int hour) {
+        return DAY.plusHours(hour);
+    }
+}
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Поиск по префиксам слов и порядок применения изменений индекса. Вне транзакции изменения
+ * применяются сразу, поэтому порядок вызовов моделирует порядок обработчиков фиксации
+ */
+class InMemoryItemSearchEngineTest {
+    private static final long OWNER_ID = 10;
+
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final InMemoryItemSearchEngine engine = new InMemoryItemSearchEngine(itemRepository);
+
+    @Test
+    void wordsOfQueryAreMatchedAsPrefixes() {
+        engine.index(item(1, "Дрель ударная", "Аккумуляторная, два аккумулятора", true, 0));
+        engine.index(item(2, "Дрелька", "Детская игрушка", true, 0));
+        engine.index(item(3, "Отвертка", "Аккумуляторная отвертка", true, 0));
+
+        assertEquals(List.of(1L, 2L), search("дрел"));
+        assertEquals(List.of(1L, 3L), search("АККУМ"));
+        assertEquals(List.of(1L), search("дрель аккум"));
+        assertEquals(List.of(), search("дрель отвертка"));
+        assertEquals(List.of(), search("ударный"));
+        assertEquals(List.of(), search(" , "));
+    }
+
+    @Test
+    void unavailableItemsAreNotFound() {
+        engine.index(item(1, "Дрель", "Ударная", true, 0));
+        engine.index(item(2, "Дрель", "Сломанная", false, 0));
+
+        assertEquals(List.of(1L), search("дрель"));
+    }
+
+    @Test
+    void resultContainsFieldsOfResponseWithoutDatabase() {
+        engine.index(item(7, "Пила", "Цепная", true, 3));
+
+        List<SearchableItem> found = engine.searchAvailable("пила", PageRequest.of(0, 10));
+
+        assertEquals(1, found.size());
+        assertEquals("Пила", found.get(0).getName());
+        assertEquals("Цепная", found.get(0).getDescription());
+        assertEquals(OWNER_ID, found.get(0).getOwnerId());
+        assertEquals(3L, found.get(0).getVersion());
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void pageIsTakenFromSortedMatches() {
+        for (long id = 1; id <= 5; id++) {
+            engine.index(item(id, "Лестница " + id, "Стремянка", true, 0));
+        }
+
+        assertEquals(List.of(3L, 4L), search("лестн", PageRequest.of(1, 2)));
+    }
+
+    @Test
+    void olderVersionAppliedLaterIsIgnored() {
+        engine.index(item(1, "Дрель", "Новое описание", true, 2));
+        engine.index(item(1, "Перфоратор", "Старое описание", true, 1));
+
+        assertEquals(List.of(1L), search("дрель"));
+        assertEquals(List.of(), search("перфоратор"));
+        assertEquals(List.of(), search("старое"));
+    }
+
+    @Test
+    void newerVersionReplacesTerms() {
+        engine.index(item(1, "Перфоратор", "Старое описание", true, 1));
+        engine.index(item(1, "Дрель", "Новое описание", false, 2));
+        engine.index(item(1, "Дрель", "Новое описание", true, 3));
+
+        assertEquals(List.of(), search("перфоратор"));
+        assertEquals(List.of(1L), search("дрель новое"));
+    }
+
+    @Test
+    void snapshotAppliedAfterRemovalIsIgnored() {
+        Item item = item(1, "Дрель", "Ударная", true, 1);
+
+        engine.index(item);
+        engine.remove(1L);
+        engine.index(item(1, "Дрель", "Ударная", true, 2));
+
+        assertEquals(List.of(), search("дрель"));
+    }
+
+    @Test
+    void removeByOwnerRemovesAllOwnerItems() {
+        engine.index(item(1, "Дрель", "Ударная", true, 0));
+        engine.index(item(2, "Дрель", "Аккумуляторная", true, 0));
+        when(itemRepository.findIdsByOwnerId(OWNER_ID)).thenReturn(List.of(1L, 2L));
+
+        engine.removeByOwner(OWNER_ID);
+
+        assertEquals(List.of(), search("дрель"));
+    }
+
+    private List<Long> search(String text) {
+        return search(text, PageRequest.of(0, 10));
+    }
+
+    private List<Long> search(String text, PageRequest pageRequest) {
+        return engine.searchAvailable(text, pageRequest).stream()
+            .map(SearchableItem::getId)
+            .collect(Collectors.toList());
+    }
+
+    private static Item item(long id, String name, String description, boolean available, long version) {
+        return Item.builder()
+            .id(id)
+            .name(name)
+            .description(description)
+            .available(available)
+            .owner(User.builder().id(OWNER_ID).name("owner").email("owner@mail.ru").build())
+            .version(version)
+            .build();
+    }
+}
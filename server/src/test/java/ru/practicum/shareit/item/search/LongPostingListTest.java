@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongPostingListTest {
+    @Test
+    void addKeepsIdsSortedAndUnique() {
+        LongPostingList list = of(5, 1, 3, 3, 9, 7, 1);
+
+        assertArrayEquals(new long[]{1, 3, 5, 7, 9}, list.toArray());
+    }
+
+    @Test
+    void addGrowsBeyondInitialCapacity() {
+        LongPostingList list = new LongPostingList();
+
+        for (long id = 100; id > 0; id--) {
+            list.add(id);
+        }
+
+        long[] ids = list.toArray();
+
+        assertEquals(100, ids.length);
+        assertEquals(1, ids[0]);
+        assertEquals(100, ids[99]);
+        assertTrue(list.contains(100));
+    }
+
+    @Test
+    void removeIsIdempotent() {
+        LongPostingList list = of(1, 2, 3);
+
+        list.remove(2);
+        list.remove(2);
+        list.remove(42);
+
+        assertArrayEquals(new long[]{1, 3}, list.toArray());
+        assertFalse(list.contains(2));
+
+        list.remove(1);
+        list.remove(3);
+
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    void clearRemovesAllIds() {
+        LongPostingList list = of(1, 2, 3, 4, 5);
+
+        list.clear();
+        list.add(7);
+
+        assertArrayEquals(new long[]{7}, list.toArray());
+    }
+
+    @Test
+    void retainContainedKeepsOnlyListedIds() {
+        assertArrayEquals(new long[]{2, 6}, of(2, 4, 6).retainContained(new long[]{1, 2, 3, 6, 8}));
+        assertArrayEquals(new long[]{}, new LongPostingList().retainContained(new long[]{1, 2}));
+    }
+
+    @Test
+    void unionMergesListsWithoutDuplicates() {
+        assertArrayEquals(new long[]{1, 2, 3, 5, 8}, LongPostingList.union(List.of(of(1, 3, 5), of(2, 3, 8), of(5))));
+        assertArrayEquals(new long[]{4, 9}, LongPostingList.union(List.of(of(9, 4))));
+    }
+
+    @Test
+    void intersectKeepsCommonIds() {
+        assertArrayEquals(new long[]{3, 7}, LongPostingList.intersect(new long[]{1, 3, 5, 7}, new long[]{2, 3, 7, 9}));
+        assertArrayEquals(new long[]{}, LongPostingList.intersect(new long[]{1, 2}, new long[]{3, 4}));
+        assertArrayEquals(new long[]{}, LongPostingList.intersect(new long[]{}, new long[]{1}));
+    }
+
+    private static LongPostingList of(long... ids) {
+        LongPostingList list = new LongPostingList();
+
+        for (long id : ids) {
+            list.add(id);
+        }
+
+        return list;
+    }
+}
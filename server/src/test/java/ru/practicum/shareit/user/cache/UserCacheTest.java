@@ -0,0 +1,117 @@
+package ru.practicum.shareit.user.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.constants.UserCacheNames;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Гонка чтения и удаления из кэша: значение, прочитанное из базы до фиксации изменения пользователя,
+ * не должно остаться в кэше после удаления
+ */
+class UserCacheTest {
+    private static final long USER_ID = 1;
+    private static final CachedUser STALE = new CachedUser(USER_ID, "user", "user@mail.ru", 0L);
+    private static final CachedUser FRESH = new CachedUser(USER_ID, "renamed", "user@mail.ru", 1L);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(UserCacheNames.USERS);
+    private final UserCache userCache = new UserCache(userRepository, cacheManager);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = cacheManager.getCache(UserCacheNames.USERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadedValueIsCachedAndReused() {
+        when(userRepository.findSnapshotById(USER_ID)).thenReturn(Optional.of(STALE));
+
+        assertEquals(Optional.of(STALE), userCache.find(USER_ID));
+        assertEquals(Optional.of(STALE), userCache.find(USER_ID));
+
+        verify(userRepository, times(1)).findSnapshotById(USER_ID);
+    }
+
+    @Test
+    void valueLoadedBeforeEvictIsNotCached() throws Exception {
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch evicted = new CountDownLatch(1);
+
+        when(userRepository.findSnapshotById(USER_ID))
+            .thenAnswer(invocation -> {
+                loaded.countDown();
+                assertTrue(evicted.await(5, TimeUnit.SECONDS), "evict");
+                return Optional.of(STALE);
+            })
+            .thenReturn(Optional.of(FRESH));
+
+        Future<Optional<CachedUser>> reader = executor.submit(() -> userCache.find(USER_ID));
+
+        assertTrue(loaded.await(5, TimeUnit.SECONDS), "load");
+        userCache.evict(USER_ID);
+        evicted.countDown();
+
+        assertEquals(Optional.of(STALE), reader.get(5, TimeUnit.SECONDS));
+        assertNull(cache.get(USER_ID), "stale value after evict");
+        assertEquals(Optional.of(FRESH), userCache.find(USER_ID));
+    }
+
+    @Test
+    void valueCachedBeforeCommitIsEvictedAfterCommit() throws Exception {
+        when(userRepository.findSnapshotById(USER_ID)).thenReturn(Optional.of(STALE));
+
+        TransactionSynchronizationManager.initSynchronization();
+        userCache.evict(USER_ID);
+
+        assertEquals(Optional.of(STALE), executor.submit(() -> userCache.find(USER_ID)).get(5, TimeUnit.SECONDS));
+        assertEquals(STALE, cache.get(USER_ID, CachedUser.class), "read before commit");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertNull(cache.get(USER_ID), "stale value after commit");
+    }
+
+    @Test
+    void deletedUserIsNotFoundAfterEvict() {
+        when(userRepository.findSnapshotById(USER_ID)).thenReturn(Optional.of(STALE)).thenReturn(Optional.empty());
+
+        assertEquals(Optional.of(STALE), userCache.find(USER_ID));
+
+        userCache.evict(USER_ID);
+
+        assertEquals(Optional.empty(), userCache.find(USER_ID));
+    }
+}